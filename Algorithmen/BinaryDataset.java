@@ -0,0 +1,369 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+* Binary file format for datasets stored by columns. The file starts with a small header:
+* a magic number, the version, the amount of rows, the amount of columns and the name of every column.
+* Afterwards the values of every column follow one column after another as doubles in little endian order.
+* Reading copies the columns of the file in big blocks directly into the arrays of the matrix, so nothing has to be parsed,
+* the whole dataset is in the heap afterwards.
+*
+* Usage as converter: java BinaryDataset input.csv output.bin
+*
+* @author Yara Schuett
+*/
+public class BinaryDataset{
+	
+	// "SDB1" at the start of every file
+	public static final int MAGIC = 0x53444231;
+	
+	public static final int VERSION = 1;
+	
+	// the values of a column start at a multiple of 8 bytes after the header
+	private static final int ALIGNMENT = 8;
+	
+	// size of the buffer used to read and write the columns
+	private static final int BUFFER_SIZE = 1 << 20;
+	
+	// values in a csv file are separated by comma or semicolon
+	private static final Pattern SEPARATOR = Pattern.compile("[,;]");
+	
+	private String path;
+	
+	private String[] columnNames;
+	
+	private DataMatrix data;
+	
+	/**
+	* Constructor that reads the dataset of the given file.
+	*
+	* @param path The path of the binary file
+	* @throws IOException If the file can not be read or is no binary dataset
+	*/
+	public BinaryDataset(String path) throws IOException{
+		this.path = path;
+		read();
+	}
+	
+	// nur für readCsv
+	private BinaryDataset(){
+	}
+	
+	/**
+	* Reads the header and copies every column of the file block by block into the matrix.
+	*/
+	private void read() throws IOException{
+		try(FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)){
+			long fileSize = channel.size();
+			
+			// fixed part of the header: magic, version, rows, columns and the length of the names
+			ByteBuffer header = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(channel, header, 0);
+			header.flip();
+			if(header.getInt() != MAGIC){
+				throw new IOException(path + " is no binary dataset");
+			}
+			int version = header.getInt();
+			if(version != VERSION){
+				throw new IOException(path + " has the unknown version " + version);
+			}
+			long numRows = header.getLong();
+			int numColumns = header.getInt();
+			int namesLength = header.getInt();
+			
+			// every name has at least its length, so more columns than that can not be right
+			if(numRows < 0 || numRows > Integer.MAX_VALUE || numColumns < 0 || namesLength < 0
+					|| 24L + namesLength > fileSize || numColumns > namesLength / 4){
+				throw new IOException(path + " has an invalid header");
+			}
+			
+			// the names of the columns, each with its length in front
+			ByteBuffer names = ByteBuffer.allocate(namesLength).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(channel, names, 24);
+			names.flip();
+			columnNames = new String[numColumns];
+			for(int j = 0; j < numColumns; j++){
+				byte[] name = new byte[names.getInt()];
+				names.get(name);
+				columnNames[j] = new String(name, StandardCharsets.UTF_8);
+			}
+			
+			long dataStart = align(24L + namesLength);
+			long columnSize = numRows * Double.BYTES;
+			long dataEnd;
+			try{
+				dataEnd = Math.addExact(dataStart, Math.multiplyExact(numColumns, columnSize));
+			}catch(ArithmeticException e){
+				throw new IOException(path + " has an invalid header");
+			}
+			if(dataEnd > fileSize){
+				throw new IOException(path + " is shorter than its header says");
+			}
+			
+			// read every column in blocks of the buffer size and put the values in bulk into its array
+			double[][] columns = new double[numColumns][(int) numRows];
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			int valuesPerBuffer = BUFFER_SIZE / Double.BYTES;
+			for(int j = 0; j < numColumns; j++){
+				long position = dataStart + j * columnSize;
+				for(int from = 0; from < numRows; from += valuesPerBuffer){
+					int amount = (int) Math.min(valuesPerBuffer, numRows - from);
+					buffer.clear();
+					buffer.limit(amount * Double.BYTES);
+					readFully(channel, buffer, position + (long) from * Double.BYTES);
+					buffer.flip();
+					buffer.asDoubleBuffer().get(columns[j], from, amount);
+				}
+			}
+			data = new DataMatrix(columns, (int) numRows);
+		}
+	}
+	
+	/**
+	* Writes a dataset into a binary file.
+	*
+	* @param path The path of the binary file
+	* @param data The dataset to write
+	* @param columnNames The name of every column, or null to name them after their index
+	* @throws IOException If the file can not be written
+	*/
+	public static void write(String path, DataMatrix data, String[] columnNames) throws IOException{
+		int numColumns = data.getNumColumns();
+		int numRows = data.getNumRows();
+		
+		try(FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			writeFully(channel, createHeader(numRows, numColumns, columnNames));
+			
+			// the columns one after another, put in bulk into the buffer
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			int valuesPerBuffer = BUFFER_SIZE / Double.BYTES;
+			for(int j = 0; j < numColumns; j++){
+				double[] column = data.getColumn(j);
+				for(int from = 0; from < numRows; from += valuesPerBuffer){
+					int amount = Math.min(valuesPerBuffer, numRows - from);
+					buffer.clear();
+					DoubleBuffer values = buffer.asDoubleBuffer();
+					values.put(column, from, amount);
+					buffer.limit(amount * Double.BYTES);
+					writeFully(channel, buffer);
+				}
+			}
+		}
+	}
+	
+	/**
+	* Creates the header of a file with the names of the columns, filled up to the start of the first column.
+	* The columns follow one after another, so column j starts at the capacity of the header plus j * numRows * 8.
+	*
+	* @param numRows The amount of rows
+	* @param numColumns The amount of columns
+	* @param columnNames The names of the columns, null for QI0, QI1, ...
+	* @return The header ready to be written
+	*/
+	static ByteBuffer createHeader(long numRows, int numColumns, String[] columnNames){
+		byte[][] names = new byte[numColumns][];
+		int namesLength = 0;
+		for(int j = 0; j < numColumns; j++){
+			String name = columnNames != null ? columnNames[j] : "QI" + j;
+			names[j] = name.getBytes(StandardCharsets.UTF_8);
+			namesLength += 4 + names[j].length;
+		}
+		
+		ByteBuffer header = ByteBuffer.allocate((int) align(24 + namesLength)).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putLong(numRows);
+		header.putInt(numColumns);
+		header.putInt(namesLength);
+		for(int j = 0; j < numColumns; j++){
+			header.putInt(names[j].length);
+			header.put(names[j]);
+		}
+		header.position(header.capacity());
+		header.flip();
+		return header;
+	}
+	
+	/**
+	* Writes a dataset given as rows into a binary file.
+	*
+	* @param path The path of the binary file
+	* @param rows The rows of the dataset
+	* @param columnNames The name of every column, or null to name them after their index
+	* @throws IOException If the file can not be written
+	*/
+	public static void write(String path, double[][] rows, String[] columnNames) throws IOException{
+		write(path, DataMatrix.fromRows(rows), columnNames);
+	}
+	
+	/**
+	* Reads a csv file with one row per line and the values separated by comma or semicolon.
+	* If the first line is no row of numbers it is taken as the names of the columns.
+	*
+	* @param csvPath The path of the csv file
+	* @return The dataset of the csv file
+	* @throws IOException If the file can not be read or a value is no number
+	*/
+	public static BinaryDataset readCsv(String csvPath) throws IOException{
+		BinaryDataset dataset = new BinaryDataset();
+		dataset.path = csvPath;
+		
+		try(BufferedReader br = new BufferedReader(new FileReader(csvPath))){
+			double[][] columns = null;
+			int numRows = 0;
+			int numColumns = 0;
+			String line;
+			while((line = br.readLine()) != null){
+				if(line.trim().isEmpty()){
+					continue;
+				}
+				String[] values = SEPARATOR.split(line);
+				
+				// the first line decides the amount of columns and if there are names
+				if(columns == null){
+					numColumns = values.length;
+					columns = new double[numColumns][1024];
+					if(!isNumber(values[0])){
+						dataset.columnNames = new String[numColumns];
+						for(int j = 0; j < numColumns; j++){
+							dataset.columnNames[j] = values[j].trim();
+						}
+						continue;
+					}
+				}
+				if(values.length != numColumns){
+					throw new IOException(csvPath + ": line " + (numRows + 1) + " has " + values.length + " instead of " + numColumns + " values");
+				}
+				if(numRows == columns[0].length){
+					for(int j = 0; j < numColumns; j++){
+						columns[j] = Arrays.copyOf(columns[j], 2 * numRows);
+					}
+				}
+				for(int j = 0; j < numColumns; j++){
+					try{
+						columns[j][numRows] = Double.parseDouble(values[j].trim());
+					}catch(NumberFormatException e){
+						throw new IOException(csvPath + ": " + values[j] + " is no number");
+					}
+				}
+				numRows++;
+			}
+			if(columns == null){
+				columns = new double[0][];
+			}
+			for(int j = 0; j < numColumns; j++){
+				columns[j] = Arrays.copyOf(columns[j], numRows);
+			}
+			dataset.data = new DataMatrix(columns, numRows);
+		}
+		return dataset;
+	}
+	
+	/**
+	* Converts a csv file into a binary file.
+	*
+	* @param csvPath The path of the csv file
+	* @param binaryPath The path of the binary file
+	* @throws IOException If a file can not be read or written
+	*/
+	public static void convert(String csvPath, String binaryPath) throws IOException{
+		BinaryDataset dataset = readCsv(csvPath);
+		write(binaryPath, dataset.data, dataset.columnNames);
+	}
+	
+	/**
+	* Converts the csv file given as first argument into the binary file given as second argument.
+	*
+	* @param args The path of the csv file and the path of the binary file
+	*/
+	public static void main(String[] args){
+		if(args.length != 2){
+			System.out.println("Usage: java BinaryDataset input.csv output.bin");
+			return;
+		}
+		try{
+			long start = System.nanoTime();
+			convert(args[0], args[1]);
+			BinaryDataset dataset = new BinaryDataset(args[1]);
+			System.out.println("Converted " + dataset.getNumRows() + " rows with " + dataset.getNumColumns()
+				+ " columns in " + (System.nanoTime() - start)/1000000 + " ms");
+		}catch(IOException e){
+			System.out.println("Oooops! " + e.getMessage());
+		}
+	}
+	
+	/**
+	* Getter for the dataset stored by columns
+	*
+	* @return The dataset
+	*/
+	public DataMatrix getData(){
+		return data;
+	}
+	
+	/**
+	* Getter for the dataset as rows, like filehandling.Dataset returns it
+	*
+	* @return The rows of the dataset
+	*/
+	public double[][] getDataDouble(){
+		return data.toRows();
+	}
+	
+	/**
+	* Getter for the names of the columns
+	*
+	* @return The name of every column, null for a csv file without names
+	*/
+	public String[] getColumnNames(){
+		return columnNames;
+	}
+	
+	public int getNumRows(){
+		return data.getNumRows();
+	}
+	
+	public int getNumColumns(){
+		return data.getNumColumns();
+	}
+	
+	private static boolean isNumber(String value){
+		try{
+			Double.parseDouble(value.trim());
+			return true;
+		}catch(NumberFormatException e){
+			return false;
+		}
+	}
+	
+	private static long align(long position){
+		return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+	
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		while(buffer.hasRemaining()){
+			int read = channel.read(buffer, position);
+			if(read < 0){
+				throw new IOException("unexpected end of file");
+			}
+			position += read;
+		}
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException{
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+	}
+}
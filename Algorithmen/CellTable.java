@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+* Groups generalized tuples into cells. A tuple is given by the section of its value in every QI,
+* all tuples with the same sections are in the same cell. For every cell only its sections and
+* the amount of tuples in it are stored.
+* The sections of a tuple are packed into one long key that is counted in a primitive hash map.
+*
+* @author Yara Schuett
+*/
+public class CellTable{
+
+	private int numQI;
+
+	// amount of different section indices in every QI
+	private int radix;
+
+	// whether every combination of sections fits into a long, otherwise the key is a hash and cells are compared
+	private boolean packed;
+
+	private LongIntHashMap cellIndex;
+
+	// for every cell its sections, one cell after another
+	private int[] sections;
+
+	private int[] counts;
+
+	private int numCells;
+
+	/**
+	* Constructor where the amount of QIs and the amount of section indices in every QI are set.
+	*
+	* @param numQI The amount of QIs of a tuple
+	* @param radix The amount of different section indices in every QI
+	*/
+	public CellTable(int numQI, int radix){
+		this.numQI = numQI;
+		this.radix = radix;
+
+		// check if radix^numQI different keys fit into a long
+		packed = true;
+		long combinations = 1;
+		for(int i = 0; i < numQI && packed; i++){
+			if(combinations > Long.MAX_VALUE / radix){
+				packed = false;
+			}else{
+				combinations *= radix;
+			}
+		}
+
+		cellIndex = new LongIntHashMap(16);
+		sections = new int[16 * numQI];
+		counts = new int[16];
+	}
+
+	/**
+	* Adds a tuple to its cell. A new cell is created for the first tuple with these sections.
+	*
+	* @param tupleSections The sections of the tuples, all tuples one after another
+	* @param offset The position of the first section of the tuple to add
+	* @return The index of the cell of the tuple
+	*/
+	public int add(int[] tupleSections, int offset){
+		return add(tupleSections, offset, 1);
+	}
+
+	/**
+	* Adds a tuple a given amount of times to its cell. A new cell is created for the first tuple with these sections.
+	*
+	* @param tupleSections The sections of the tuples, all tuples one after another
+	* @param offset The position of the first section of the tuple to add
+	* @param amount How often the tuple is added
+	* @return The index of the cell of the tuple
+	*/
+	public int add(int[] tupleSections, int offset, int amount){
+		long key = key(tupleSections, offset);
+		int cell = cellIndex.get(key, -1);
+
+		// a hashed key can belong to another cell, then try the next key
+		while(!packed && cell != -1 && !sameSections(cell, tupleSections, offset)){
+			key++;
+			cell = cellIndex.get(key, -1);
+		}
+
+		if(cell == -1){
+			cell = newCell(tupleSections, offset);
+			cellIndex.put(key, cell);
+		}
+		counts[cell] += amount;
+		return cell;
+	}
+
+	/**
+	* Getter for the amount of cells
+	*
+	* @return The amount of cells
+	*/
+	public int getNumCells(){
+		return numCells;
+	}
+
+	/**
+	* Getter for the amount of tuples in a cell
+	*
+	* @param cell The index of the cell
+	* @return The amount of tuples in the cell
+	*/
+	public int getCount(int cell){
+		return counts[cell];
+	}
+
+	/**
+	* Getter for the section of a cell in a QI
+	*
+	* @param cell The index of the cell
+	* @param qi The QI
+	* @return The section of the cell in the QI
+	*/
+	public int getSection(int cell, int qi){
+		return sections[cell * numQI + qi];
+	}
+
+	/**
+	* Getter for the amount of QIs
+	*
+	* @return The amount of QIs of a tuple
+	*/
+	public int getNumQI(){
+		return numQI;
+	}
+
+	/**
+	* Calculates the key of a tuple. If all combinations fit into a long it is the number of the tuple
+	* with the sections as digits, otherwise it is a hash of the sections.
+	*
+	* @param tupleSections The sections of the tuples
+	* @param offset The position of the first section of the tuple
+	* @return The key of the tuple
+	*/
+	private long key(int[] tupleSections, int offset){
+		long key = 0;
+		if(packed){
+			for(int i = 0; i < numQI; i++){
+				key = key * radix + tupleSections[offset + i];
+			}
+		}else{
+			for(int i = 0; i < numQI; i++){
+				key = 31 * key + tupleSections[offset + i];
+			}
+		}
+		return key;
+	}
+
+	/**
+	* Checks if a cell has the same sections as a tuple.
+	*/
+	private boolean sameSections(int cell, int[] tupleSections, int offset){
+		for(int i = 0; i < numQI; i++){
+			if(sections[cell * numQI + i] != tupleSections[offset + i]){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	* Creates a new empty cell with the sections of a tuple.
+	*/
+	private int newCell(int[] tupleSections, int offset){
+		if(numCells == counts.length){
+			counts = Arrays.copyOf(counts, 2 * counts.length);
+			sections = Arrays.copyOf(sections, 2 * counts.length * numQI);
+		}
+		System.arraycopy(tupleSections, offset, sections, numCells * numQI, numQI);
+		numCells++;
+		return numCells - 1;
+	}
+}
\ No newline at end of file
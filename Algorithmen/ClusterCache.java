@@ -0,0 +1,137 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+* Keeps the cluster tables of the last used datasets, so SmallDB generalizes and clusters a dataset only once
+* for all its runs. A table is found by the dataset object itself and the sections of the generalization,
+* so the dataset must not be changed while its table is in the cache.
+* If several threads ask for the same missing table at the same time, it is built once and the others wait for it.
+* When more tables than the capacity are stored, the table that was not used for the longest time is removed.
+*
+* @author Yara Schuett
+*/
+public class ClusterCache{
+	
+	private int capacity;
+	
+	// the tables in the order of their last use, the oldest first
+	private LinkedHashMap<Key, FutureTask<ClusterTable>> tables;
+	
+	/**
+	* Constructor for a cache that stores at most capacity tables.
+	*
+	* @param capacity The amount of tables that are kept
+	*/
+	public ClusterCache(int capacity){
+		this.capacity = Math.max(1, capacity);
+		this.tables = new LinkedHashMap<Key, FutureTask<ClusterTable>>(16, 0.75f, true){
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, FutureTask<ClusterTable>> eldest){
+				return size() > ClusterCache.this.capacity;
+			}
+		};
+	}
+	
+	/**
+	* Returns the table of a dataset, it is built if it is not in the cache.
+	*
+	* @param dataset The dataset object, tables are only shared for the same object
+	* @param numSections The amount of sections of the generalization
+	* @param lower The min value of the first section
+	* @param upper The max value of the last section
+	* @param builder Builds the table if it is not in the cache
+	* @return The table of the dataset
+	*/
+	public ClusterTable get(Object dataset, int numSections, double lower, double upper, Callable<ClusterTable> builder){
+		Key key = new Key(dataset, numSections, lower, upper);
+		FutureTask<ClusterTable> table;
+		boolean build = false;
+		synchronized(this){
+			table = tables.get(key);
+			if(table == null){
+				table = new FutureTask<ClusterTable>(builder);
+				tables.put(key, table);
+				build = true;
+			}
+		}
+		
+		// build outside of the lock, so tables of other datasets can be used meanwhile
+		if(build){
+			table.run();
+		}
+		try{
+			return table.get();
+		}catch(ExecutionException e){
+			
+			// a failed table is not kept, the next call tries again
+			synchronized(this){
+				if(tables.get(key) == table){
+					tables.remove(key);
+				}
+			}
+			throw new RuntimeException("the clusters of the dataset could not be built", e.getCause());
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("interrupted while waiting for the clusters of the dataset", e);
+		}
+	}
+	
+	/**
+	* Removes all tables.
+	*/
+	public synchronized void clear(){
+		tables.clear();
+	}
+	
+	/**
+	* Getter for the amount of stored tables
+	*
+	* @return The amount of stored tables
+	*/
+	public synchronized int size(){
+		return tables.size();
+	}
+	
+	/**
+	* Identifies a table by the dataset object and the sections, two datasets with the same values are different keys.
+	*/
+	private static class Key{
+		
+		private Object dataset;
+		
+		private int numSections;
+		
+		private double lower;
+		
+		private double upper;
+		
+		public Key(Object dataset, int numSections, double lower, double upper){
+			this.dataset = dataset;
+			this.numSections = numSections;
+			this.lower = lower;
+			this.upper = upper;
+		}
+		
+		@Override
+		public boolean equals(Object other){
+			if(!(other instanceof Key)){
+				return false;
+			}
+			Key key = (Key) other;
+			return dataset == key.dataset && numSections == key.numSections
+				&& Double.compare(lower, key.lower) == 0 && Double.compare(upper, key.upper) == 0;
+		}
+		
+		@Override
+		public int hashCode(){
+			int hash = System.identityHashCode(dataset);
+			hash = 31 * hash + numSections;
+			hash = 31 * hash + Double.hashCode(lower);
+			hash = 31 * hash + Double.hashCode(upper);
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+import java.util.ArrayList;
+
+/**
+* Result of the first step of SmallDB: the original data generalized with IndependentAnonym and grouped into clusters.
+* It depends only on the data and the sections of the generalization, not on the other parameters of SmallDB,
+* so one table can be used by many runs. A table is never changed after it is built and can be read by several threads.
+*
+* @author Yara Schuett
+*/
+public class ClusterTable{
+	
+	// for every cluster the amount of elements in it
+	private CellTable cells;
+	
+	// for every cluster one representative, all elements of a cluster are equal
+	private ArrayList<double[]> representatives;
+	
+	private ClusterTable(CellTable cells, ArrayList<double[]> representatives){
+		this.cells = cells;
+		this.representatives = representatives;
+	}
+	
+	/**
+	* Generalizes the data and puts the elements with the same sections in one cluster.
+	*
+	* @param data The original dataset
+	* @param numSections The amount of sections in every QI
+	* @param lower The min value of the first section
+	* @param upper The max value of the last section
+	* @return The clusters of the data
+	*/
+	public static ClusterTable build(DataMatrix data, int numSections, double lower, double upper){
+		int numQI = data.getNumColumns();
+		
+		// get the section of every value, the same sections are the same anonymized values
+		IndependentAnonym anonym = new IndependentAnonym(data, numSections, lower, upper);
+		int[] sections = anonym.anonymizeToSections();
+		
+		// count the elements with the same sections in one pass and put them in one cluster
+		CellTable cells = new CellTable(numQI, anonym.getNumSections());
+		ArrayList<double[]> representatives = new ArrayList<double[]>();
+		for(int i = 0; i < data.getNumRows(); i++){
+			int cell = cells.add(sections, i * numQI);
+			
+			// the first element of a cluster is its representative
+			if(cell == representatives.size()){
+				double[] representative = new double[numQI];
+				for(int j = 0; j < numQI; j++){
+					representative[j] = anonym.getRepresentative(sections[i * numQI + j]);
+				}
+				representatives.add(representative);
+			}
+		}
+		return new ClusterTable(cells, representatives);
+	}
+	
+	/**
+	* Getter for the cells with the amount of elements of every cluster, must not be changed
+	*
+	* @return The cells of the clusters
+	*/
+	public CellTable getCells(){
+		return cells;
+	}
+	
+	/**
+	* Getter for the representatives of the clusters, the list and its elements must not be changed
+	*
+	* @return For every cluster its representative
+	*/
+	public ArrayList<double[]> getRepresentatives(){
+		return representatives;
+	}
+	
+	/**
+	* Getter for the amount of clusters
+	*
+	* @return The amount of clusters
+	*/
+	public int getNumClusters(){
+		return representatives.size();
+	}
+}
@@ -4,25 +4,43 @@ import java.util.Arrays;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 
 /**
 * Includes methods to calculate the covariance of a given matrix and its means .
+* The covariance matrix is calculated in one pass over the rows. The rows are centered block by block
+* and only the upper triangle of the symmetric matrix is summed up.
 *
 * @author Yara Schuett
 */
 public class Covariance{
 	
+	// amount of rows that are centered together, a block of rows fits into the cache
+	private static final int BLOCK_SIZE = 256;
+	
+	// partitions with less rows are not split in parallel anymore
+	private static final int PARALLEL_THRESHOLD = 16 * BLOCK_SIZE;
+	
 	private int numQI;
 	
 	private double[][] matrix;
 	
+	// the matrix stored by columns, only set if the covariance was created with a DataMatrix
+	private DataMatrix columns;
+	
+	private int numRows;
+	
 	private double[][] covMatrix;
 	
 	private double[] attributeMean;
 	
 	private double[] standardDerivation;
 	
+	// amount of threads, with 1 the covariance matrix is calculated sequentially
+	private int parallelism = 1;
+	
 	/**
 	* Constructor where the matrix, its mean and its standard derivation is set.
 	*
@@ -33,9 +51,35 @@ public class Covariance{
 	public Covariance(double[][] matrix, double[] attributeMean, double[] standardDerivation){
 		this.matrix = matrix;
 		this.numQI = matrix[0].length;
+		this.numRows = matrix.length;
 		this.attributeMean = attributeMean;
 		this.standardDerivation = standardDerivation;
 	}
+	
+	/**
+	* Constructor where the matrix stored by columns, its mean and its standard derivation is set.
+	*
+	* @param columns The matrix to calculate the covariance matrix of
+	* @param attributeMean Array with the mean of each attribute in the matrix
+	* @param standardDerivation Array with the standard derivation of each attribute in the matrix
+	*/
+	public Covariance(DataMatrix columns, double[] attributeMean, double[] standardDerivation){
+		this.columns = columns;
+		this.numQI = columns.getNumColumns();
+		this.numRows = columns.getNumRows();
+		this.attributeMean = attributeMean;
+		this.standardDerivation = standardDerivation;
+	}
+	
+	/**
+	* Setter for the amount of threads. With more than one thread blocks of rows are summed up in parallel.
+	*
+	* @param parallelism The amount of threads
+	*/
+	public void setParallelism(int parallelism){
+		this.parallelism = parallelism;
+	}
+	
 	/**
 	* Returns the covariance matrix of the given matrix. The cavariance matrix has the dimensions:
 	* size matrix[].length times matrix[].length (dim times dim)
@@ -44,24 +88,113 @@ public class Covariance{
 	*/
 	public double[][] calculateCovMatrix(){
 		
+		// sum of (valueDim1-mean)(valueDim2-mean) over all rows, only for dim1 <= dim2
+		double[] sums;
+		if(parallelism > 1 && numRows >= PARALLEL_THRESHOLD){
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try{
+				sums = pool.invoke(new SumTask(0, numRows));
+			}finally{
+				pool.shutdown();
+			}
+		}else{
+			sums = sumProducts(0, numRows);
+		}
+		
 		// initialize covariance matrix
-		double[][] covMatrix = new double[matrix[0].length][matrix[0].length];
+		double[][] covMatrix = new double[numQI][numQI];
 		
-		// calculate covariance for each combination of dimensions
+		// calculate the covariance of two dimensions with the following equation (sum over all values (valueDim1-mean)(valueDim2-mean) / (amount values - 1)
+		// the matrix is symmetric so the lower triangle is the same as the upper one
 		for(int i = 0; i < numQI; i++){
-			for(int j = 0; j < numQI; j++){
-				
-				// calculate the covariance of two dimensions with the following equation (sum over all values (valueDim1-mean)(valueDim2-mean) / (amount values - 1)
-				double sum = 0;
-				for(int k = 0; k < matrix.length; k++){
-					sum += (matrix[k][i] - attributeMean[i]) * (matrix[k][j] - attributeMean[j]);
-				}
-				covMatrix[i][j] = sum/(matrix.length-1);
-				
+			for(int j = i; j < numQI; j++){
+				covMatrix[i][j] = sums[i * numQI + j]/(numRows-1);
+				covMatrix[j][i] = covMatrix[i][j];
 			}
 		}
 		return covMatrix;
 	}
 	
+	/**
+	* Sums up the products of the centered values for all combinations of dimensions dim1 <= dim2 over a range of rows.
+	* The rows are centered block by block into a buffer so the products are calculated on contiguous values.
+	*
+	* @param from The first row
+	* @param to The row after the last row
+	* @return The sums, at position dim1 * numQI + dim2
+	*/
+	private double[] sumProducts(int from, int to){
+		double[] sums = new double[numQI * numQI];
+		double[] block = new double[BLOCK_SIZE * numQI];
+		
+		for(int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE){
+			int blockEnd = Math.min(blockStart + BLOCK_SIZE, to);
+			
+			// center the rows of the block once
+			if(columns != null){
+				for(int i = 0; i < numQI; i++){
+					double[] column = columns.getColumn(i);
+					for(int k = blockStart; k < blockEnd; k++){
+						block[(k - blockStart) * numQI + i] = column[k] - attributeMean[i];
+					}
+				}
+			}else{
+				for(int k = blockStart; k < blockEnd; k++){
+					int offset = (k - blockStart) * numQI;
+					for(int i = 0; i < numQI; i++){
+						block[offset + i] = matrix[k][i] - attributeMean[i];
+					}
+				}
+			}
+			
+			// add the products of every row to the upper triangle
+			for(int k = 0; k < blockEnd - blockStart; k++){
+				int offset = k * numQI;
+				for(int i = 0; i < numQI; i++){
+					double centered = block[offset + i];
+					int row = i * numQI;
+					for(int j = i; j < numQI; j++){
+						sums[row + j] += centered * block[offset + j];
+					}
+				}
+			}
+		}
+		return sums;
+	}
+	
+	/**
+	* Task that sums up the products for a range of rows, big ranges are split in halves.
+	* The sums of the halves are added in a fixed order, so the result does not depend on the threads.
+	*/
+	private class SumTask extends RecursiveTask<double[]>{
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int from;
+		
+		private int to;
+		
+		public SumTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected double[] compute(){
+			if(to - from <= PARALLEL_THRESHOLD){
+				return sumProducts(from, to);
+			}
+			int middle = from + (to - from)/2;
+			SumTask second = new SumTask(middle, to);
+			second.fork();
+			double[] sums = new SumTask(from, middle).compute();
+			double[] otherSums = second.join();
+			for(int i = 0; i < sums.length; i++){
+				sums[i] += otherSums[i];
+			}
+			return sums;
+		}
+	}
+	
 	
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+import java.util.ArrayList;
+
+/**
+* Dataset stored by columns: for every attribute one array with the values of all rows.
+* In contrast to an array of rows there is no object per row and the values of one attribute
+* lie next to each other, so going through an attribute reads contiguous memory.
+* For code that works with rows a row can be copied or viewed.
+*
+* @author Yara Schuett
+*/
+public class DataMatrix{
+	
+	private int numRows;
+	
+	private int numColumns;
+	
+	// for every attribute the values of all rows
+	private double[][] columns;
+	
+	/**
+	* Constructor for a matrix with the given size where all values are 0.
+	*
+	* @param numRows The amount of rows
+	* @param numColumns The amount of attributes
+	*/
+	public DataMatrix(int numRows, int numColumns){
+		this(new double[numColumns][numRows], numRows);
+	}
+	
+	/**
+	* Constructor for a matrix using the given columns, they are not copied.
+	*
+	* @param columns For every attribute the values of all rows
+	* @param numRows The amount of rows
+	*/
+	public DataMatrix(double[][] columns, int numRows){
+		this.columns = columns;
+		this.numColumns = columns.length;
+		this.numRows = numRows;
+	}
+	
+	/**
+	* Creates a matrix with the values of the given rows.
+	*
+	* @param rows The rows, all with the same amount of attributes
+	* @return The matrix with the values of the rows
+	*/
+	public static DataMatrix fromRows(double[][] rows){
+		int numColumns = rows.length > 0 ? rows[0].length : 0;
+		DataMatrix matrix = new DataMatrix(rows.length, numColumns);
+		for(int i = 0; i < rows.length; i++){
+			for(int j = 0; j < numColumns; j++){
+				matrix.columns[j][i] = rows[i][j];
+			}
+		}
+		return matrix;
+	}
+	
+	/**
+	* Creates a matrix with the values of the given rows.
+	*
+	* @param rows The rows, all with the same amount of attributes
+	* @return The matrix with the values of the rows
+	*/
+	public static DataMatrix fromRows(ArrayList<double[]> rows){
+		return fromRows(rows.toArray(new double[rows.size()][]));
+	}
+	
+	/**
+	* Getter for the amount of rows
+	*
+	* @return The amount of rows
+	*/
+	public int getNumRows(){
+		return numRows;
+	}
+	
+	/**
+	* Getter for the amount of attributes
+	*
+	* @return The amount of attributes
+	*/
+	public int getNumColumns(){
+		return numColumns;
+	}
+	
+	/**
+	* Getter for a value
+	*
+	* @param row The row of the value
+	* @param column The attribute of the value
+	* @return The value
+	*/
+	public double get(int row, int column){
+		return columns[column][row];
+	}
+	
+	/**
+	* Setter for a value
+	*
+	* @param row The row of the value
+	* @param column The attribute of the value
+	* @param value The value to set
+	*/
+	public void set(int row, int column, double value){
+		columns[column][row] = value;
+	}
+	
+	/**
+	* Getter for the values of an attribute. The array is not copied, changes are changes of the matrix.
+	*
+	* @param column The attribute
+	* @return The values of all rows in the attribute
+	*/
+	public double[] getColumn(int column){
+		return columns[column];
+	}
+	
+	/**
+	* Copies a row into a given array, so the array can be used again for the next row.
+	*
+	* @param row The row to copy
+	* @param target The array to copy the row in, with at least numColumns places
+	* @return The target array
+	*/
+	public double[] getRow(int row, double[] target){
+		for(int j = 0; j < numColumns; j++){
+			target[j] = columns[j][row];
+		}
+		return target;
+	}
+	
+	/**
+	* Copies a row into a new array.
+	*
+	* @param row The row to copy
+	* @return The values of the row
+	*/
+	public double[] getRow(int row){
+		return getRow(row, new double[numColumns]);
+	}
+	
+	/**
+	* Creates a view of a row, the values are read from the matrix and not copied.
+	*
+	* @param row The row to view
+	* @return The view of the row
+	*/
+	public RowView getRowView(int row){
+		return new RowView(row);
+	}
+	
+	/**
+	* Creates a new matrix with the given rows of this matrix.
+	*
+	* @param rows The indices of the rows to take
+	* @param amount The amount of indices to take from rows
+	* @return The matrix with the chosen rows
+	*/
+	public DataMatrix selectRows(int[] rows, int amount){
+		DataMatrix selection = new DataMatrix(amount, numColumns);
+		for(int j = 0; j < numColumns; j++){
+			double[] column = columns[j];
+			double[] selectedColumn = selection.columns[j];
+			for(int i = 0; i < amount; i++){
+				selectedColumn[i] = column[rows[i]];
+			}
+		}
+		return selection;
+	}
+	
+	/**
+	* Copies all rows into an array of rows, for code that works with rows.
+	*
+	* @return The rows of the matrix
+	*/
+	public double[][] toRows(){
+		double[][] rows = new double[numRows][];
+		for(int i = 0; i < numRows; i++){
+			rows[i] = getRow(i);
+		}
+		return rows;
+	}
+	
+	/**
+	* View of one row of the matrix.
+	*/
+	public class RowView{
+		
+		private int row;
+		
+		private RowView(int row){
+			this.row = row;
+		}
+		
+		/**
+		* Getter for a value of the row
+		*
+		* @param column The attribute
+		* @return The value of the row in the attribute
+		*/
+		public double get(int column){
+			return columns[column][row];
+		}
+		
+		/**
+		* Getter for the amount of values of the row
+		*
+		* @return The amount of attributes
+		*/
+		public int size(){
+			return numColumns;
+		}
+	}
+}
\ No newline at end of file
@@ -1,13 +1,15 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Arrays;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
 * Generates a synthetic database based on another given database with one of two possible algorithms.
@@ -25,10 +27,6 @@ public class Evaluate{
 	
 	private static int numQI;
 	
-	private static SDGS sdgs;
-	
-	private static int numLinesSynth;
-	
 	private static int numLinesOrig;
 	
 	// necessary for using filehandling 
@@ -38,10 +36,20 @@ public class Evaluate{
 	
 	// change to decide which algorithm to test
 	private static boolean sdgsSelected = false;
+	
+	// amount of cells of the grid that are evaluated at the same time
+	private static int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	private static final String[] datasetNames = {"Census", "Cloud1", "Cloud2", "EIA", "TARRAGONA", "UCI"};
 	// set to the directiory for the chosen algorithm
 	// Quelle für synthDatabase
 	private static String pathSynth;
 	
+	// change to write every synthetic database to a file starting with pathSynth, it is written in the background
+	private static boolean persistSynthData = false;
+	
+	private static SyntheticDataSink synthSink;
+	
 	// modify when different dataset
 	// Quelle für synthDatabase
 	private static String pathOrig;
@@ -51,6 +59,21 @@ public class Evaluate{
 	
 	private static String path;
 	
+	// stays open for the whole run and writes the collected rows together
+	private static ResultWriter results;
+	
+	// log of the finished cells at path + ".checkpoint", an interrupted sweep continues with the next unfinished cell
+	private static SweepCheckpoint checkpoint;
+	
+	// cluster tables of the original datasets, shared by all SmallDB runs of the sweep, so every dataset is clustered once
+	private static ClusterCache clusterCache;
+	
+	// the parameters of every row of the results
+	private static ArrayList<double[]> grid;
+	
+	// the row of the current parameters, written when the values of all datasets are added
+	private static StringBuilder row;
+	
 	public static void main(String[] args){
 		
 		if(sdgsSelected){
@@ -59,30 +82,13 @@ public class Evaluate{
 		}else{
 			path = "../Ergebnisse/SmallDB/testStatic.csv";
 		}
-		String daten = "";
 		databases = new ArrayList<double[][]>();
+		clusterCache = new ClusterCache(datasetNames.length);
+		if(persistSynthData){
+			synthSink = new SyntheticDataSink(4);
+		}
 		
 		params = new ArrayList<int[]>();
-		if(sdgsSelected){
-			try {
-				BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
-			    new FileOutputStream(path, true)));
-				bw.write("k;beta;" + "CensusCov" + ";"+ "Census1;Census2;" + "Cloud1Cov;Cloud11;CLoud12;" + "Cloud2Cov;Cloud21;Cloud22;EIACov;EIA1;EIA2; TARRAGONACov; TARRAGONA1;TARRAGONA2; UCICov; UCI1;UCI2" + "\n");
-				bw.close();
-			} catch (IOException e) {
-			System.out.println("Oooops!");
-			}
-		}else{
-			try {
-				BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
-			    new FileOutputStream(path, true)));
-				bw.write(" alpha;epsilon; numSections;m; exp;Amount DB;" + "CensusCov" + ";"+ "Census1;Census2;" + "Cloud1Cov;Cloud11;CLoud12;" + "Cloud2Cov;Cloud21;Cloud22;EIACov;EIA1;EIA2; TARRAGONACov; TARRAGONA1;TARRAGONA2; UCICov; UCI1;UCI2" + "\n");
-				bw.close();
-			} catch (IOException e) {
-			System.out.println("Oooops!");
-			}
-
-		}
 		
 		
 		pathOrig = "../StandardizedData/S_Census.csv";
@@ -115,75 +121,23 @@ public class Evaluate{
 		numLinesOrig = 48842;
 		getOrigDatabase(pathOrig, numQI, numLinesOrig);
 		
+		// expand the grid, every combination of the parameters is one row of the results
+		grid = new ArrayList<double[]>();
+		
 		// SDGS
 		if(sdgsSelected){
+			pathSynth = "../SyntheticData/SDGS/SynthSDGS";
 			for(int k = 2; k <= 10; k++){
 			
 				for(int i = 1; i < 10; i++){
 					double beta = (double)i * 0.1;
-					writeParamsSDGS(k, beta);
-				
-					for(int j = 0; j < 6; j++){
-				
-						switch(j){
-						case 0:
-							daten = "Census";
-							break;
-						case 1:
-							daten = "Cloud1";
-						break;
-						case 2:
-							daten = "Cloud2";
-							break;
-						case 3:
-							daten = "EIA";
-						break;
-						case 4:
-							daten = "TARRAGONA";
-						break;
-						case 5:
-							daten = "UCI";
-						break;
-						}
-					
-					pathSynth = "../SyntheticData/SDGS/SynthSDGS.csv";
-					// modify params
-					sdgs = new SDGS(beta,k, params.get(j)[0]);
-			
-					// execute algorithm sdgs
-					
-					// mondrian
-					sdgs.algorithmSDGS(databases.get(j));
-
-					// independent anonymization
-					//sdgs.algorithmSDGSIndependent(databases.get(j));
-
-					// store size of new database for the next step: loading database
-					numLinesSynth = sdgs.getSize();
-				
-					filehandling.Dataset ds2 = new filehandling.Dataset(pathSynth, params.get(j)[0], numCA, numLinesSynth);
-					double[][] synthDatabase = ds2.getDataDouble();
-		
-					UtilityCov utilCov = new UtilityCov(databases.get(j), synthDatabase);
-					// calculate utility for the given original database and the generated synthetic database
-					double utilityValueCov = utilCov.utility();
-				
-					Utility1 util1 = new Utility1(databases.get(j), synthDatabase);
-					// calculate utility for the given original database and the generated synthetic database
-					double utilityValue1 = util1.utility();
-					
-					Utility2 util2 = new Utility2(databases.get(j), synthDatabase);
-					// calculate utility for the given original database and the generated synthetic database
-					double utilityValue2 = util2.utility();
-					
-					writeData(j, utilityValueCov, utilityValue1, utilityValue2);
-				}
-				
+					grid.add(new double[]{k, beta});
 				}
 			}
 		}
 		// SmallDB
 		else{
+			pathSynth = "../SyntheticData/SmallDB/SynthSmallDB2";
 			for(double exp = -5; exp < 0; exp+= 1){
 			for(int amount = 5; amount <= 205; amount += 50){
 			for(int numSections = 5; numSections < 100; numSections += 20){
@@ -191,114 +145,376 @@ public class Evaluate{
 				for(double alpha = 0.1;alpha <=0.2; alpha += 0.05){
 							
 				for(double epsilon = 0.0001; epsilon <= 0.1; epsilon = epsilon * 10){
-						writeParamsSmallDB(alpha, epsilon, numSections, m, exp, amount);
-								
-								for(int j = 0; j < 6; j++){
-				
-									switch(j){
-										case 0:
-											daten = "Census";
-											break;
-										case 1:
-											daten = "Cloud1";
-											break;
-										case 2:
-											daten = "Cloud2";
-											break;
-										case 3:
-											daten = "EIA";
-											break;
-										case 4:
-											daten = "TARRAGONA";
-											break;
-										case 5:
-											daten = "UCI";
-											break;
-									}
-								
-								pathSynth = "../SyntheticData/SmallDB/SynthSmallDB2.csv";
-								// execute algorithm smallDB
-								SmallDB smDB = new SmallDB(alpha, epsilon, numSections, m, exp, amount, params.get(j)[0]);
-								smDB.smallDB(databases.get(j));
+					grid.add(new double[]{alpha, epsilon, numSections, m, exp, amount});
+				}
+				}
+				}
+			}
+			}
+			}
+		}
+		
+		// continue an interrupted sweep of the same grid, its finished cells are not calculated again
+		try {
+			checkpoint = new SweepCheckpoint(path + ".checkpoint", gridFingerprint(grid), grid.size() * 6, new File(path).length());
+		} catch (IOException e) {
+			System.out.println("Oooops! " + e.getMessage());
+			closeSynthSink();
+			return;
+		}
+		
+		try {
+			// a continued sweep removes only the rows it wrote before, the results of earlier sweeps stay in the file
+			// and the sweep writes all its rows again, so it has only one header
+			cutResults(path, checkpoint.getResultLength());
 			
-								// store size of new database for the next step: loading database
-								numLinesSynth = smDB.getSize();
-								
-								filehandling.Dataset ds2 = new filehandling.Dataset(pathSynth, params.get(j)[0], numCA, numLinesSynth);
-								double[][] synthDatabase = ds2.getDataDouble();
+			// write 64 rows at once or after 10 seconds
+			results = new ResultWriter(path, true, 64, 10000);
+		} catch (IOException e) {
+			System.out.println("Oooops!");
+			closeSynthSink();
+			try {
+				checkpoint.close();
+			} catch (IOException closeFailure) {
+				System.out.println("Oooops!");
+			}
+			return;
+		}
+		if(sdgsSelected){
+			results.writeRow("k;beta;" + "CensusCov" + ";"+ "Census1;Census2;" + "Cloud1Cov;Cloud11;CLoud12;" + "Cloud2Cov;Cloud21;Cloud22;EIACov;EIA1;EIA2; TARRAGONACov; TARRAGONA1;TARRAGONA2; UCICov; UCI1;UCI2");
+		}else{
+			results.writeRow(" alpha;epsilon; numSections;m; exp;Amount DB;" + "CensusCov" + ";"+ "Census1;Census2;" + "Cloud1Cov;Cloud11;CLoud12;" + "Cloud2Cov;Cloud21;Cloud22;EIACov;EIA1;EIA2; TARRAGONACov; TARRAGONA1;TARRAGONA2; UCICov; UCI1;UCI2");
+		}
 		
-								UtilityCov utilCov = new UtilityCov(databases.get(j), synthDatabase);
-								// calculate utility for the given original database and the generated synthetic database
-								double utilityValueCov = utilCov.utility();
-				
-								Utility1 util1 = new Utility1(databases.get(j), synthDatabase);
-								// calculate utility for the given original database and the generated synthetic database
-								double utilityValue1 = util1.utility();
-								
-								Utility2 util2 = new Utility2(databases.get(j), synthDatabase);
-								// calculate utility for the given original database and the generated synthetic database
-								double utilityValue2 = util2.utility();
-					
-								writeData(j, utilityValueCov, utilityValue1, utilityValue2);
-								}
-								}
+		// rows that differ only in epsilon are one group, SmallDB creates and scores their range only once
+		ArrayList<int[]> groups = groupRows(grid);
 		
+		// every combination of a group and a dataset is one task, the results are written in the order of the grid
+		SweepScheduler scheduler = new SweepScheduler(parallelism);
+		try {
+			scheduler.run(groups.size() * 6, new IntFunction<double[][]>(){
+				@Override
+				public double[][] apply(int task){
+					return evaluateGroup(groups.get(task / 6), task % 6);
+				}
+			}, new Consumer<double[][]>(){
+				
+				// the results come in the order of the tasks, the rows of a group are written when all datasets are finished
+				private int task = 0;
+				
+				private double[][][] groupValues = new double[6][][];
+				
+				@Override
+				public void accept(double[][] utilityValues){
+					int j = task % 6;
+					groupValues[j] = utilityValues;
+					if(j == 5){
+						int[] rows = groups.get(task / 6);
+						for(int r = 0; r < rows.length; r++){
+							writeParams(grid.get(rows[r]));
+							for(int k = 0; k < 6; k++){
+								writeData(k, groupValues[k][r][0], groupValues[k][r][1], groupValues[k][r][2]);
 							}
-						
 						}
 					}
+					task++;
 				}
+			});
+		} catch (RuntimeException e) {
+			// the finished cells stay in the checkpoint, the next run continues with the others
+			// the synthetic databases of the finished cells are still written
+			closeSynthSink();
+			clusterCache.clear();
+			results.close();
+			try {
+				checkpoint.close();
+			} catch (IOException closeFailure) {
+				e.addSuppressed(closeFailure);
 			}
+			throw e;
+		}
+		
+		// wait until all synthetic databases are written, the datasets are not clustered anymore
+		closeSynthSink();
+		clusterCache.clear();
+		results.close();
+		
+		// the whole sweep is in the result file, the next run starts a new sweep
+		try {
+			checkpoint.delete();
+		} catch (IOException e) {
+			System.out.println("Oooops!");
 		}
 	}
 	
+	// waits until the synthetic databases that should be kept are written and stops the writing thread
+	private static void closeSynthSink(){
+		if(synthSink != null){
+			synthSink.close();
+		}
+	}
+	
+	// cuts the result file back to its length before the sweep started, a shorter file is not changed
+	private static void cutResults(String path, long length) throws IOException{
+		if(new File(path).length() <= length){
+			return;
+		}
+		try(RandomAccessFile file = new RandomAccessFile(path, "rw")){
+			file.setLength(length);
+		}
+	}
+	
+	// groups the following rows of the grid that differ only in epsilon, for SDGS every row is its own group
+	private static ArrayList<int[]> groupRows(ArrayList<double[]> grid){
+		ArrayList<int[]> groups = new ArrayList<int[]>();
+		int start = 0;
+		for(int i = 1; i <= grid.size(); i++){
+			if(i == grid.size() || sdgsSelected || !sameExceptEpsilon(grid.get(start), grid.get(i))){
+				int[] rows = new int[i - start];
+				for(int r = 0; r < rows.length; r++){
+					rows[r] = start + r;
+				}
+				groups.add(rows);
+				start = i;
+			}
+		}
+		return groups;
+	}
+	
+	// epsilon is the second parameter of a SmallDB row
+	private static boolean sameExceptEpsilon(double[] paramX, double[] paramY){
+		for(int k = 0; k < paramX.length; k++){
+			if(k != 1 && paramX[k] != paramY[k]){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	// changes when the algorithm, the parameters of the grid or the datasets change
+	private static long gridFingerprint(ArrayList<double[]> grid){
+		long fingerprint = sdgsSelected ? 1 : 2;
+		for(int i = 0; i < grid.size(); i++){
+			for(int j = 0; j < grid.get(i).length; j++){
+				fingerprint = 31 * fingerprint + Double.doubleToLongBits(grid.get(i)[j]);
+			}
+		}
+		for(int j = 0; j < params.size(); j++){
+			fingerprint = 31 * fingerprint + params.get(j)[0];
+			fingerprint = 31 * fingerprint + params.get(j)[1];
+		}
+		return fingerprint;
+	}
+	
 	
 	private static void getOrigDatabase(String pathOrig, int numQI, int numLinesOrig){
-		filehandling.Dataset ds = new filehandling.Dataset(pathOrig, numQI, numCA, numLinesOrig);
-		double[][] origDatabase = ds.getDataDouble();
+		
+		// the binary copy of the csv file is read without parsing, it is created when the csv file is read the first time
+		// and created again when the csv file was changed afterwards or other lines are requested
+		String pathBinary = pathOrig.substring(0, pathOrig.lastIndexOf('.')) + ".bin";
+		String pathStamp = pathBinary + ".source";
+		
+		// size and time of change of the csv file the binary copy was created from, stored next to the binary copy
+		File csv = new File(pathOrig);
+		String stamp = csv.length() + ";" + csv.lastModified();
+		double[][] origDatabase = null;
+		if(new File(pathBinary).exists() && stamp.equals(readStamp(pathStamp))){
+			try{
+				BinaryDataset ds = new BinaryDataset(pathBinary);
+				if(ds.getNumColumns() == numQI && ds.getNumRows() == numLinesOrig){
+					origDatabase = ds.getDataDouble();
+				}
+			}catch(IOException e){
+				System.out.println("Oooops!");
+			}
+		}
+		if(origDatabase == null){
+			filehandling.Dataset ds = new filehandling.Dataset(pathOrig, numQI, numCA, numLinesOrig);
+			origDatabase = ds.getDataDouble();
+			try{
+				// the stamp is written after the binary copy, so an interrupted copy is not used
+				new File(pathStamp).delete();
+				BinaryDataset.write(pathBinary, origDatabase, null);
+				FileWriter fw = new FileWriter(pathStamp);
+				fw.write(stamp);
+				fw.close();
+			}catch(IOException e){
+				System.out.println("Oooops!");
+			}
+		}
 		
 		databases.add(origDatabase);
 		
 		params.add(new int[]{numQI, numLinesOrig});
 	}
 	
-	private static void writeData(int column, double utilityValueCov, double utilityValue1, double utilityValue2){
-		try {
-			
-			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
-			    new FileOutputStream(path, true)));
-			
-			bw.write(+ utilityValueCov + ";"+ utilityValue1 + ";" + utilityValue2);
+	// reads the stamp of the csv file a binary copy was created from, null if there is none
+	private static String readStamp(String pathStamp){
+		if(!new File(pathStamp).exists()){
+			return null;
+		}
+		try(BufferedReader br = new BufferedReader(new FileReader(pathStamp))){
+			return br.readLine();
+		}catch(IOException e){
+			return null;
+		}
+	}
+	
+	/**
+	* Evaluates the cells of a group of rows for one dataset. Cells that are already in the checkpoint are not calculated again,
+	* the others are added to the checkpoint.
+	*
+	* @param rows The indices of the rows of the group in the grid
+	* @param j The index of the dataset
+	* @return For every row of the group the utility values of its cell
+	*/
+	private static double[][] evaluateGroup(int[] rows, int j){
+		double[][] utilityValues = new double[rows.length][];
+		boolean completed = true;
+		for(int r = 0; r < rows.length; r++){
+			utilityValues[r] = checkpoint.getValues(rows[r] * 6 + j);
+			completed = completed && utilityValues[r] != null;
+		}
+		if(completed){
+			return utilityValues;
+		}
+		
+		ArrayList<WeightedDataset> synthDatabases = createSynthDatabases(rows, j);
+		for(int r = 0; r < rows.length; r++){
+			if(utilityValues[r] != null){
+				continue;
+			}
+			utilityValues[r] = evaluateCell(synthDatabases.get(r), j, rows[r]);
+			try {
+				checkpoint.complete(rows[r] * 6 + j, utilityValues[r]);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return utilityValues;
+	}
+	
+	/**
+	* Creates the synthetic databases of a group of rows for one dataset. All state of the algorithms is created here,
+	* so the groups can run at the same time.
+	*
+	* @param rows The indices of the rows of the group in the grid
+	* @param j The index of the dataset
+	* @return For every row of the group its synthetic database, equal rows of SDGS are stored once with their amount
+	*/
+	private static ArrayList<WeightedDataset> createSynthDatabases(int[] rows, int j){
+		ArrayList<WeightedDataset> synthDatabases = new ArrayList<WeightedDataset>();
+		if(sdgsSelected){
+			for(int r = 0; r < rows.length; r++){
+				double[] param = grid.get(rows[r]);
+				// modify params
+				SDGS sdgs = new SDGS(param[1], (int) param[0], params.get(j)[0]);
+				// the synthetic database is used directly, it is not written and read again
+				sdgs.setPath(null);
+				
+				// execute algorithm sdgs
+				
+				// mondrian, every cluster only once with its amount of elements
+				WeightedDataset cells = sdgs.algorithmSDGSCells(databases.get(j));
+				
+				// independent anonymization
+				//WeightedDataset cells = sdgs.algorithmSDGSIndependentCells(databases.get(j));
+				
+				// like algorithmSDGS an empty result is one element with only zeros
+				if(cells.getNumRepresentatives() == 0){
+					cells = WeightedDataset.fromRows(new double[1][params.get(j)[0]]);
+				}
+				synthDatabases.add(cells);
+			}
+		}else{
+			// the rows of a group only differ in epsilon
+			double[] param = grid.get(rows[0]);
+			double[] epsilons = new double[rows.length];
+			for(int r = 0; r < rows.length; r++){
+				epsilons[r] = grid.get(rows[r])[1];
+			}
 			
-			if(column == 5){
-				bw.write("\n");
-			}else{
-				bw.write(";");
+			// execute algorithm smallDB once for all epsilons
+			SmallDB smDB = new SmallDB(param[0], param[1], (int) param[2], (int) param[3], param[4], (int) param[5], params.get(j)[0]);
+			// the synthetic database is used directly, it is not written and read again
+			smDB.setPath(null);
+			smDB.setClusterCache(clusterCache);
+			// the cells already use all threads
+			if(parallelism > 1){
+				smDB.setParallelism(1);
+			}
+			ArrayList<double[][]> selected;
+			try{
+				selected = smDB.smallDB(databases.get(j), epsilons);
+			}finally{
+				smDB.close();
+			}
+			for(int r = 0; r < selected.size(); r++){
+				synthDatabases.add(WeightedDataset.fromRows(selected.get(r)));
 			}
-			bw.close();
-		} catch (IOException e) {
-			System.out.println("Oooops!");
 		}
+		return synthDatabases;
 	}
 	
-	private static void writeParamsSDGS( int k, double beta){
-		try {
-			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path, true)));
-			bw.write( k + "; " + beta + ";");
-			bw.close();
-		} catch (IOException e) {
-			System.out.println("Oooops!");
+	/**
+	* Evaluates one cell of the grid: calculates the utility of the synthetic database created for the parameters and the dataset.
+	*
+	* @param synthDatabase The synthetic database of the cell as representatives with their amount of rows
+	* @param j The index of the dataset
+	* @param rowIndex The index of the row in the grid
+	* @return The utility values of the synthetic database: covariance, utility 1 and utility 2
+	*/
+	private static double[] evaluateCell(WeightedDataset synthDatabase, int j, int rowIndex){
+		
+		// writes the synthetic database in the background if it should be kept
+		if(synthSink != null){
+			synthSink.write(pathSynth + "_" + rowIndex + "_" + datasetNames[j] + ".bin", synthDatabase.toArray());
 		}
+		
+		UtilityCov utilCov = new UtilityCov(databases.get(j), synthDatabase);
+		// calculate utility for the given original database and the generated synthetic database
+		double utilityValueCov = utilCov.utility();
+		
+		Utility1 util1 = new Utility1(databases.get(j), synthDatabase);
+		// calculate utility for the given original database and the generated synthetic database
+		double utilityValue1 = util1.utility();
+		
+		Utility2 util2 = new Utility2(databases.get(j), synthDatabase);
+		// calculate utility for the given original database and the generated synthetic database
+		double utilityValue2 = util2.utility();
+		
+		return new double[]{utilityValueCov, utilityValue1, utilityValue2};
 	}
-	private static void writeParamsSmallDB(double alpha, double epsilon, int numSections, int m, double exp, int amount){
-		try {
-			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path, true)));
-			bw.write(alpha + ";" + epsilon + ";" + numSections + ";" + m + ";" + exp + "; " + amount + ";");
-			bw.close();
-		} catch (IOException e) {
-			System.out.println("Oooops!");
+	
+	// adds the values of a dataset to the row, with the last dataset the whole row is written
+	private static void writeData(int column, double utilityValueCov, double utilityValue1, double utilityValue2){
+		row.append(+ utilityValueCov + ";"+ utilityValue1 + ";" + utilityValue2);
+		
+		if(column == 5){
+			results.writeRow(row.toString());
+		}else{
+			row.append(";");
 		}
 	}
 	
+	// starts a new row with the parameters of a row of the grid
+	private static void writeParams(double[] param){
+		if(sdgsSelected){
+			writeParamsSDGS((int) param[0], param[1]);
+		}else{
+			writeParamsSmallDB(param[0], param[1], (int) param[2], (int) param[3], param[4], (int) param[5]);
+		}
+	}
+	
+	// starts a new row with the parameters
+	private static void writeParamsSDGS( int k, double beta){
+		row = new StringBuilder();
+		row.append( k + "; " + beta + ";");
+	}
+	private static void writeParamsSmallDB(double alpha, double epsilon, int numSections, int m, double exp, int amount){
+		row = new StringBuilder();
+		row.append(alpha + ";" + epsilon + ";" + numSections + ";" + m + ";" + exp + "; " + amount + ";");
+	}
+	
 }
 
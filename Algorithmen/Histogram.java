@@ -0,0 +1,234 @@
+import java.util.Arrays;
+
+/**
+* Answers the section queries of the utility functions with one pass over a database.
+* Every value is binned once into a slot of the sorted section boundaries, afterwards the
+* relative frequency of each section is a difference of prefix sums.
+* A slot is either exactly one boundary or the open interval between two neighbouring boundaries,
+* so also sections that overlap or are not sorted give the same answer as checking every element.
+*
+* @author Yara Schuett
+*/
+public class Histogram{
+	
+	// the ranges of the sections, for each section the min and the max value
+	private double[][] range;
+	
+	private int numSections;
+	
+	// all different min and max values of the sections in ascending order
+	private double[] boundaries;
+	
+	// for each section the first and the last slot that belongs to it
+	private int[] firstSlot;
+	
+	private int[] lastSlot;
+	
+	/**
+	* Constructor where the ranges of the sections are set and the slots of each section are calculated.
+	* Like in the queries every section is [min, max) and only the last section is [min, max].
+	*
+	* @param range The range of every section, for each section the min and the max value
+	*/
+	public Histogram(double[][] range){
+		this.range = range;
+		this.numSections = range.length;
+		
+		// collect all min and max values and keep each value once
+		double[] temp = new double[2 * numSections];
+		for(int i = 0; i < numSections; i++){
+			temp[2 * i] = range[i][0] + 0.0;
+			temp[2 * i + 1] = range[i][1] + 0.0;
+		}
+		Arrays.sort(temp);
+		int amount = 0;
+		for(int i = 0; i < temp.length; i++){
+			if(amount == 0 || temp[i] != temp[amount - 1]){
+				temp[amount] = temp[i];
+				amount++;
+			}
+		}
+		boundaries = Arrays.copyOf(temp, amount);
+		
+		// slot 2i+1 is the boundary i itself, slot 2i+2 the values between boundary i and i+1
+		firstSlot = new int[numSections];
+		lastSlot = new int[numSections];
+		for(int i = 0; i < numSections; i++){
+			firstSlot[i] = 2 * Arrays.binarySearch(boundaries, range[i][0] + 0.0) + 1;
+			
+			// the last section includes its max value
+			if(i == numSections - 1){
+				lastSlot[i] = 2 * Arrays.binarySearch(boundaries, range[i][1] + 0.0) + 1;
+			}else{
+				lastSlot[i] = 2 * Arrays.binarySearch(boundaries, range[i][1] + 0.0);
+			}
+		}
+	}
+	
+	/**
+	* Getter for the amount of slots a value can be binned in
+	*
+	* @return The amount of slots
+	*/
+	public int getNumSlots(){
+		return 2 * boundaries.length + 1;
+	}
+	
+	/**
+	* Finds the slot of a value by a binary search over the boundaries.
+	*
+	* @param value The value to bin
+	* @return The slot of the value or -1 if the value can not be in any section
+	*/
+	public int slot(double value){
+		if(Double.isNaN(value)){
+			return -1;
+		}
+		
+		// binarySearch orders -0.0 before 0.0, the comparisons of the sections treat them as equal
+		int index = Arrays.binarySearch(boundaries, value + 0.0);
+		
+		// value is one of the boundaries
+		if(index >= 0){
+			return 2 * index + 1;
+		}
+		// value is between two boundaries, the insertion point is the next bigger boundary
+		return 2 * (-index - 1);
+	}
+	
+	/**
+	* Counts for every QI how many values of the database are in each slot, with only one pass over the database.
+	*
+	* @param database The considered database
+	* @return For each QI the amount of values in each slot
+	*/
+	public int[][] count(double[][] database){
+		int numQI = database.length > 0 ? database[0].length : 0;
+		int[][] slotCounts = new int[numQI][getNumSlots()];
+		
+		for(int k = 0; k < database.length; k++){
+			for(int i = 0; i < numQI; i++){
+				int slot = slot(database[k][i]);
+				if(slot >= 0){
+					slotCounts[i][slot]++;
+				}
+			}
+		}
+		return slotCounts;
+	}
+	
+	/**
+	* Counts for every QI how many values of the database are in each slot. The database is stored by columns,
+	* so every QI is one pass over one array.
+	*
+	* @param database The considered database
+	* @return For each QI the amount of values in each slot
+	*/
+	public int[][] count(DataMatrix database){
+		int numQI = database.getNumColumns();
+		int numRows = database.getNumRows();
+		int[][] slotCounts = new int[numQI][getNumSlots()];
+
+		for(int i = 0; i < numQI; i++){
+			double[] column = database.getColumn(i);
+			int[] counts = slotCounts[i];
+			for(int k = 0; k < numRows; k++){
+				int slot = slot(column[k]);
+				if(slot >= 0){
+					counts[slot]++;
+				}
+			}
+		}
+		return slotCounts;
+	}
+
+	/**
+	* Counts for every QI how many values of a weighted database are in each slot. Every representative is
+	* binned once and counted as often as the rows it stands for.
+	*
+	* @param database The considered database
+	* @return For each QI the amount of values in each slot
+	*/
+	public int[][] count(WeightedDataset database){
+		double[][] representatives = database.getRepresentatives();
+		int[] counts = database.getCounts();
+		int numQI = representatives.length > 0 ? representatives[0].length : 0;
+		int[][] slotCounts = new int[numQI][getNumSlots()];
+		
+		for(int k = 0; k < representatives.length; k++){
+			for(int i = 0; i < numQI; i++){
+				int slot = slot(representatives[k][i]);
+				if(slot >= 0){
+					slotCounts[i][slot] += counts[k];
+				}
+			}
+		}
+		return slotCounts;
+	}
+	
+	/**
+	* Calculates the relative frequency of every section for every QI out of the counted slots.
+	*
+	* @param slotCounts For each QI the amount of values in each slot
+	* @param numElements The amount of elements the slots were counted for
+	* @return For each QI the proportion of elements in each section
+	*/
+	public double[][] frequencies(int[][] slotCounts, int numElements){
+		double[][] frequencies = new double[slotCounts.length][numSections];
+		
+		// prefix sums over the slots, so the amount in a section is a difference
+		long[] prefix = new long[getNumSlots() + 1];
+		for(int i = 0; i < slotCounts.length; i++){
+			for(int s = 0; s < slotCounts[i].length; s++){
+				prefix[s + 1] = prefix[s] + slotCounts[i][s];
+			}
+			for(int j = 0; j < numSections; j++){
+				long numInSection = 0;
+				if(firstSlot[j] <= lastSlot[j]){
+					numInSection = prefix[lastSlot[j] + 1] - prefix[firstSlot[j]];
+				}
+				frequencies[i][j] = (double) numInSection/numElements;
+			}
+		}
+		return frequencies;
+	}
+	
+	/**
+	* Calculates the relative frequency of every section for every QI of a database.
+	*
+	* @param database The considered database
+	* @return For each QI the proportion of elements in each section
+	*/
+	public double[][] frequencies(double[][] database){
+		return frequencies(count(database), database.length);
+	}
+
+	/**
+	* Calculates the relative frequency of every section for every QI of a database stored by columns.
+	*
+	* @param database The considered database
+	* @return For each QI the proportion of elements in each section
+	*/
+	public double[][] frequencies(DataMatrix database){
+		return frequencies(count(database), database.getNumRows());
+	}
+	
+	/**
+	* Calculates the relative frequency of every section for every QI of a weighted database.
+	*
+	* @param database The considered database
+	* @return For each QI the proportion of elements in each section
+	*/
+	public double[][] frequencies(WeightedDataset database){
+		return frequencies(count(database), (int) database.getNumRows());
+	}
+
+	/**
+	* Getter for the ranges of the sections
+	*
+	* @return The range of every section
+	*/
+	public double[][] getRange(){
+		return range;
+	}
+}
\ No newline at end of file
@@ -11,23 +11,98 @@ import java.util.Random;
 */
 
 public class IndependentAnonym{
-	//TODO: statics entfernen
 	// change the amount of sections
 	private int numSections = 16;
 	
+	// the sections divide the range [lower, upper) in parts of the same length
+	private double lower = -5;
+	
+	private double upper = 5;
+	
+	// min value of every section and the max value of the last section
+	private double[] boundaries;
+	
+	// representative of every section
+	private double[] representatives;
+	
+	// amount of sections per unit, to calculate the section of a value directly
+	private double scale;
+	
 	private int numQI;
 	private ArrayList<double[]> data;
 	
+	// the data stored by columns, only set if the anonymization was created with a DataMatrix
+	private DataMatrix matrix;
+	
+	private int numRows;
+	
 	/**
 	* Constructor where the data to anonymize is set. Also extracting the number of dimensions for numQI. 
+	* The range [-5,5) is divided in 16 sections.
 	*
 	* @param data The data to anonymize
 	*/
 	public IndependentAnonym(ArrayList<double[]> data){
+		this(data, 16, -5, 5);
+	}
+	
+	/**
+	* Constructor where the data to anonymize and the sections are set. Also extracting the number of dimensions for numQI. 
+	*
+	* @param data The data to anonymize
+	* @param numSections The amount of sections
+	* @param lower The min value of the first section
+	* @param upper The max value of the last section
+	*/
+	public IndependentAnonym(ArrayList<double[]> data, int numSections, double lower, double upper){
+		this(numSections, lower, upper);
 		this.numQI = data.get(0).length;
+		this.numRows = data.size();
 		this.data = data;
 	}
 	
+	/**
+	* Constructor where the data stored by columns to anonymize is set. The range [-5,5) is divided in 16 sections.
+	*
+	* @param matrix The data to anonymize
+	*/
+	public IndependentAnonym(DataMatrix matrix){
+		this(matrix, 16, -5, 5);
+	}
+	
+	/**
+	* Constructor where the data stored by columns to anonymize and the sections are set.
+	*
+	* @param matrix The data to anonymize
+	* @param numSections The amount of sections
+	* @param lower The min value of the first section
+	* @param upper The max value of the last section
+	*/
+	public IndependentAnonym(DataMatrix matrix, int numSections, double lower, double upper){
+		this(numSections, lower, upper);
+		this.numQI = matrix.getNumColumns();
+		this.numRows = matrix.getNumRows();
+		this.matrix = matrix;
+	}
+	
+	// berechnet die Grenzen und Repräsentanten der Abschnitte
+	private IndependentAnonym(int numSections, double lower, double upper){
+		this.numSections = numSections;
+		this.lower = lower;
+		this.upper = upper;
+		this.scale = numSections / (upper - lower);
+		
+		// calculate the boundaries and the representatives of the sections once
+		boundaries = new double[numSections + 1];
+		for(int k = 0; k <= numSections; k++){
+			boundaries[k] = lower + (upper - lower)/numSections * k;
+		}
+		representatives = new double[numSections];
+		for(int k = 0; k < numSections; k++){
+			representatives[k] = (boundaries[k] + boundaries[k + 1])/2;
+		}
+	}
+	
 	/**
 	* Method to anonymize the given data by checking for each element and dimension in which section it is.
 	* When an elements value in a dimension is in a section it gets is representative. The representative is
@@ -39,24 +114,14 @@ public class IndependentAnonym{
 		
 		ArrayList<double[]> anonymizedData = new ArrayList<double[]>();
 		// for each datapoint anonymize independently
-		for(int i = 0; i < data.size(); i++){
+		for(int i = 0; i < numRows; i++){
 			
 			// array to store the new anonymized value in
 			double[] temp = new double[numQI];
 			
-			// for each QI check in which dimension the value lays
+			// for each QI set the value to the representative of its section
 			for(int j = 0; j < numQI; j++){
-				for(int k = 0; k < numSections; k++){
-					double min = - 5 + 10.0/numSections * k;
-					double max = - 5 + 10.0/numSections * (k + 1);
-					
-					// when the section is found set the value to the mean and stop the search for the current dimension
-					if(min <= data.get(i)[j] && data.get(i)[j] < max){
-						temp[j] = (min + max)/2;
-						break;
-					}
-				}
-				
+				temp[j] = representatives[getSection(getValue(i, j))];
 			}
 			// add to anonymized data
 			anonymizedData.add(temp);
@@ -64,4 +129,88 @@ public class IndependentAnonym{
 		return anonymizedData;
 	}
 	
+	/**
+	* Method to anonymize the given data like anonymize, but instead of the representative the index of the section
+	* is stored. The indices of all datapoints are stored one after another in one array.
+	*
+	* @return The sections of the anonymized data, numQI indices for each datapoint
+	*/
+	public int[] anonymizeToSections(){
+		
+		int[] sections = new int[numRows * numQI];
+		
+		// stored by columns every QI is one pass over one array
+		if(matrix != null){
+			for(int j = 0; j < numQI; j++){
+				double[] column = matrix.getColumn(j);
+				for(int i = 0; i < numRows; i++){
+					sections[i * numQI + j] = getSection(column[i]);
+				}
+			}
+			return sections;
+		}
+		
+		// for each datapoint anonymize independently
+		for(int i = 0; i < numRows; i++){
+			double[] element = data.get(i);
+			for(int j = 0; j < numQI; j++){
+				sections[i * numQI + j] = getSection(element[j]);
+			}
+		}
+		return sections;
+	}
+	
+	// Wert eines Datenpunkts, egal wie die Daten gespeichert sind
+	private double getValue(int row, int qi){
+		if(matrix != null){
+			return matrix.get(row, qi);
+		}
+		return data.get(row)[qi];
+	}
+	
+	/**
+	* Calculates the section of a value directly from its distance to the lower end, so it takes the same time for any
+	* amount of sections. Every section is [min, max), values lower than the first section are put in the first section
+	* and values greater than the last section in the last section.
+	*
+	* @param value The value to find the section of
+	* @return The index of the section
+	*/
+	public int getSection(double value){
+		if(value < lower){
+			return 0;
+		}
+		if(value >= upper){
+			return numSections - 1;
+		}
+		int section = Math.min((int) ((value - lower) * scale), numSections - 1);
+		
+		// rounding can move the value over a boundary, so compare with the boundaries like a search would do
+		if(value < boundaries[section]){
+			section--;
+		}else if(section < numSections - 1 && value >= boundaries[section + 1]){
+			section++;
+		}
+		return section;
+	}
+	
+	/**
+	* Gets the representative of a section, the average of the section. 
+	*
+	* @param section The index of the section
+	* @return The representative of the section
+	*/
+	public double getRepresentative(int section){
+		return representatives[section];
+	}
+	
+	/**
+	* Getter for the amount of sections
+	*
+	* @return The amount of sections
+	*/
+	public int getNumSections(){
+		return numSections;
+	}
+	
 }
\ No newline at end of file
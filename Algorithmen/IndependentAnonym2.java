@@ -10,83 +10,149 @@ import java.util.Random;
 */
 
 public class IndependentAnonym2{
-	//TODO: statics entfernen
 	// erstmal ganz einfach aufteilen
-	private static int numSections = 8;
+	private int numSections = 8;
 	
-	private static int numQI;
-	private static ArrayList<double[]> data;
+	private int numQI;
+	private ArrayList<double[]> data;
+	
+	// all different min and max values of the sections in ascending order
+	private double[] boundaries;
+	
+	// anonymized value for every slot, a slot is one boundary or the values between two boundaries
+	private double[] slotValues;
 	
 	public IndependentAnonym2(ArrayList<double[]> data){
 		this.numQI = data.get(0).length;
 		this.data = data;
+		calculateSlots(calculateSections());
 	}
 	
-	public static ArrayList<double[]> anonymize(){
+	public ArrayList<double[]> anonymize(){
 		ArrayList<double[]> anonymizedData = new ArrayList<double[]>();
-		int rest = numSections - 2;
 		for(int i = 0; i < data.size(); i++){
 			double[] temp = new double[numQI];
 			for(int j = 0; j < numQI; j++){
-				for(int k = 0; k < numSections; k++){
-					double min;
-					double max;
-					if(k == 0){
-						min = -5;
-						max = -3;
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}else if(k == numSections - 1){
-						min = 3;
-						max = 5;
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}else if(1 <= k && k <= Math.ceil(rest * 0.02)){
-						min = -3 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * k;
-						max = -3 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * (k + 1);
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}else if(k <= rest && rest - Math.ceil(rest * 0.02) <= k){
-						min = 2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * k;
-						max = 2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * (k + 1);
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}else if(k < Math.ceil(rest * 0.155) && Math.ceil(rest * 0.02) <= k){
-						min = -2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * k;
-						max = -2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * (k + 1);
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}else if(k <= rest - Math.ceil(rest * 0.02) && rest - Math.ceil(rest * 0.155) < k){
-						min = 1 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * k;
-						max = 1 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * (k + 1);
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}else{
-						min = -1 + 2.0/Math.ceil(rest * 0.31) * k;
-						max = -1 + 2.0/Math.ceil(rest * 0.31) * (k + 1);
-						if(min < data.get(i)[j] && data.get(i)[j] < max){
-							temp[j] = (min + max)/2;
-							break;
-						}
-					}
-				}
-				
+				temp[j] = slotValues[slot(data.get(i)[j])];
 			}
 			anonymizedData.add(temp);
 		}
 		return anonymizedData;
 	}
 	
+	/**
+	* Calculates the min and the max value of every section once. The sections are not equally long
+	* because the data is standardized.
+	*
+	* @return For every section the min and the max value
+	*/
+	private double[][] calculateSections(){
+		double[][] sections = new double[numSections][2];
+		int rest = numSections - 2;
+		for(int k = 0; k < numSections; k++){
+			double min;
+			double max;
+			if(k == 0){
+				min = -5;
+				max = -3;
+			}else if(k == numSections - 1){
+				min = 3;
+				max = 5;
+			}else if(1 <= k && k <= Math.ceil(rest * 0.02)){
+				min = -3 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * k;
+				max = -3 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * (k + 1);
+			}else if(k <= rest && rest - Math.ceil(rest * 0.02) <= k){
+				min = 2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * k;
+				max = 2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - 1) * (k + 1);
+			}else if(k < Math.ceil(rest * 0.155) && Math.ceil(rest * 0.02) <= k){
+				min = -2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * k;
+				max = -2 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * (k + 1);
+			}else if(k <= rest - Math.ceil(rest * 0.02) && rest - Math.ceil(rest * 0.155) < k){
+				min = 1 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * k;
+				max = 1 + 1.0/Math.abs(Math.ceil(rest * 0.02) - Math.ceil(rest * 0.155)) * (k + 1);
+			}else{
+				min = -1 + 2.0/Math.ceil(rest * 0.31) * k;
+				max = -1 + 2.0/Math.ceil(rest * 0.31) * (k + 1);
+			}
+			sections[k][0] = min;
+			sections[k][1] = max;
+		}
+		return sections;
+	}
+	
+	/**
+	* Sorts the boundaries of the sections and calculates the anonymized value of every slot. 
+	* Like in the search over all sections a value gets the average of the first section (min, max) it is in
+	* and 0 if it is in no section.
+	*
+	* @param sections For every section the min and the max value
+	*/
+	private void calculateSlots(double[][] sections){
+		
+		// collect all min and max values and keep each value once
+		double[] temp = new double[2 * numSections];
+		int amount = 0;
+		for(int k = 0; k < numSections; k++){
+			for(int b = 0; b < 2; b++){
+				if(!Double.isNaN(sections[k][b])){
+					temp[amount] = sections[k][b] + 0.0;
+					amount++;
+				}
+			}
+		}
+		Arrays.sort(temp, 0, amount);
+		int distinct = 0;
+		for(int i = 0; i < amount; i++){
+			if(distinct == 0 || temp[i] != temp[distinct - 1]){
+				temp[distinct] = temp[i];
+				distinct++;
+			}
+		}
+		boundaries = Arrays.copyOf(temp, distinct);
+		
+		// slot 0 is below all boundaries, slot 2i+1 is the boundary i itself, slot 2i+2 the values between boundary i and i+1
+		slotValues = new double[2 * distinct + 1];
+		for(int slot = 1; slot < slotValues.length; slot++){
+			int i = (slot - 1) / 2;
+			for(int k = 0; k < numSections; k++){
+				double min = sections[k][0];
+				double max = sections[k][1];
+				boolean inSection;
+				if(slot % 2 == 1){
+					inSection = min < boundaries[i] && boundaries[i] < max;
+				}else{
+					inSection = i + 1 < distinct && min <= boundaries[i] && boundaries[i + 1] <= max;
+				}
+				
+				// the first section containing the slot gives the anonymized value
+				if(inSection){
+					slotValues[slot] = (min + max)/2;
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	* Finds the slot of a value by a binary search over the boundaries.
+	*
+	* @param value The value to find the slot of
+	* @return The slot of the value
+	*/
+	private int slot(double value){
+		if(Double.isNaN(value)){
+			return 0;
+		}
+		
+		// binarySearch orders -0.0 before 0.0, the comparisons of the sections treat them as equal
+		int index = Arrays.binarySearch(boundaries, value + 0.0);
+		
+		// value is one of the boundaries
+		if(index >= 0){
+			return 2 * index + 1;
+		}
+		// value is between two boundaries, the insertion point is the next bigger boundary
+		return 2 * (-index - 1);
+	}
+	
 }
\ No newline at end of file
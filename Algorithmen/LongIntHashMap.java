@@ -0,0 +1,139 @@
+import java.util.Arrays;
+
+/**
+* Hash map from primitive long keys to primitive int values with open addressing.
+* In contrast to a HashMap<Long, Integer> no object is created for an entry.
+*
+* @author Yara Schuett
+*/
+public class LongIntHashMap{
+
+	private long[] keys;
+
+	private int[] values;
+
+	// marks which positions of the table hold an entry, so every long can be a key
+	private boolean[] used;
+
+	private int size;
+
+	/**
+	* Constructor where the table is initialized for the expected amount of entries.
+	*
+	* @param expectedSize The amount of entries expected to be stored
+	*/
+	public LongIntHashMap(int expectedSize){
+		int capacity = 16;
+		while(capacity < 2L * expectedSize){
+			capacity *= 2;
+		}
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+	}
+
+	/**
+	* Getter for the value of a key
+	*
+	* @param key The key to look up
+	* @param defaultValue The value to return if the key is not stored
+	* @return The value of the key or defaultValue
+	*/
+	public int get(long key, int defaultValue){
+		int position = find(key);
+		if(used[position]){
+			return values[position];
+		}
+		return defaultValue;
+	}
+
+	/**
+	* Stores a value for a key, an old value of the key is overwritten.
+	*
+	* @param key The key
+	* @param value The value to store
+	*/
+	public void put(long key, int value){
+		int position = find(key);
+		if(!used[position]){
+			keys[position] = key;
+			used[position] = true;
+			size++;
+			values[position] = value;
+
+			// keep at least half of the table free so the probe sequences stay short
+			if(2 * size > keys.length){
+				grow();
+			}
+		}else{
+			values[position] = value;
+		}
+	}
+
+	/**
+	* Getter for the amount of stored keys
+	*
+	* @return The amount of keys
+	*/
+	public int size(){
+		return size;
+	}
+
+	/**
+	* Finds the position of a key in the table or the free position where it would be stored.
+	*
+	* @param key The key to find
+	* @return The position of the key
+	*/
+	private int find(long key){
+		int mask = keys.length - 1;
+		int position = hash(key) & mask;
+		while(used[position] && keys[position] != key){
+			position = (position + 1) & mask;
+		}
+		return position;
+	}
+
+	/**
+	* Doubles the size of the table and stores all entries again.
+	*/
+	private void grow(){
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		keys = new long[2 * oldKeys.length];
+		values = new int[2 * oldKeys.length];
+		used = new boolean[2 * oldKeys.length];
+		for(int i = 0; i < oldKeys.length; i++){
+			if(oldUsed[i]){
+				int position = find(oldKeys[i]);
+				keys[position] = oldKeys[i];
+				values[position] = oldValues[i];
+				used[position] = true;
+			}
+		}
+	}
+
+	/**
+	* Mixes the bits of a key so also keys that differ only in the high bits are spread over the table.
+	*
+	* @param key The key
+	* @return The hash of the key
+	*/
+	private static int hash(long key){
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	/**
+	* Removes all entries.
+	*/
+	public void clear(){
+		Arrays.fill(used, false);
+		size = 0;
+	}
+}
\ No newline at end of file
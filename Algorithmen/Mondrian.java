@@ -3,14 +3,20 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.lang.Double;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
-* Implementing the multidimensional K-Anonymity algorithm Mondrian 
-* out of the paper "Mondrian Multidimensional K-Anonymity" by LeFevre, 
+* Implementing the multidimensional K-Anonymity algorithm Mondrian
+* out of the paper "Mondrian Multidimensional K-Anonymity" by LeFevre,
 * Kristen and DeWitt, David J. and Ramakrishnan, Raghu published in 2006
-* 
+*
+* The partitions are ranges of one permutation of the indices of the elements. A partition is split
+* by rearranging its part of the permutation, so no element is copied into a new list.
+* In the parallel mode big partitions are split on a fork-join pool. Both halves of a partition are disjoint
+* ranges of the permutation and every task stores its clusters in its own store, so no data is shared.
+*
 * @author Yara Schütt
 */
 
@@ -22,10 +28,25 @@ public class Mondrian{
 	// the parameter of the k-Anonymity
 	private int k;
 	
-	// the anonymized partition created by the algorithm
+	// the elements of the given data stored by columns, they are not changed by the algorithm
+	private DataMatrix elements;
+	
+	// permutation of the indices of the elements, every partition is a range of it
+	private int[] permutation;
+	
+	// the clusters created by the algorithm in the order of the permutation
+	private ClusterStore clusters;
+	
+	// amount of threads, with 1 the algorithm runs sequentially
+	private int parallelism = 1;
+	
+	// partitions with less elements are not split in parallel anymore
+	private int parallelThreshold = 8192;
+	
+	// the anonymized partition created by the algorithm, created when it is requested
 	private ArrayList<double[]> anoynmizedPartition;
 	
-	// set of the clusters the algorithm creates
+	// set of the clusters the algorithm creates, created when it is requested
 	private ArrayList<ArrayList<double[]>> clusterSet;
 	
 	/**
@@ -34,26 +55,62 @@ public class Mondrian{
 	public Mondrian(int numQI, int k){
 		this.numQI = numQI;
 		this.k = k;
-		anoynmizedPartition = new ArrayList<double[]>();
-		clusterSet = new ArrayList<ArrayList<double[]>>();
+		clusters = new ClusterStore(numQI);
+	}
+	
+	/**
+	* Setter for the amount of threads. With more than one thread the parallel mode is used.
+	*
+	* @param parallelism The amount of threads
+	*/
+	public void setParallelism(int parallelism){
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	* Setter for the amount of elements a partition needs to be split in parallel
+	*
+	* @param parallelThreshold The minimal amount of elements of a partition that is split in parallel
+	*/
+	public void setParallelThreshold(int parallelThreshold){
+		this.parallelThreshold = parallelThreshold;
 	}
 	
 	/**
 	* Choose the dimension with the largest width from all the given attributes.
-	* 
-	* @param partition The given data including all dimensions and all individuals.
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
 	* @return maxDim Dimension with the maximum range of values.
 	*/
-	public int chooseDimension(ArrayList<double[]> partition){
+	public int chooseDimension(int from, int to){
 		// setting max values to a default value
 		int maxDim = -1;
 		double maxWidth = 0;
 		
+		// get the lowest and the highest value of all dimensions, one pass over the partition for each column
+		double[] min = new double[numQI];
+		double[] max = new double[numQI];
+		Arrays.fill(min, Double.POSITIVE_INFINITY);
+		Arrays.fill(max, Double.NEGATIVE_INFINITY);
+		for(int i = 0; i < numQI; i++){
+			double[] column = elements.getColumn(i);
+			for(int j = from; j < to; j++){
+				double value = column[permutation[j]];
+				if(value < min[i]){
+					min[i] = value;
+				}
+				if(value > max[i]){
+					max[i] = value;
+				}
+			}
+		}
+		
 		/*
 		* for each dimension calculate the width and get the maximum of all the widths
 		*/
-		for(int i = 0; i < partition.get(0).length; i++){
-			double width = getWidth(partition, i);
+		for(int i = 0; i < numQI; i++){
+			double width = Math.abs(max[i] - min[i]);
 			if(width > maxWidth){
 				maxWidth = width;
 				maxDim = i;
@@ -64,149 +121,484 @@ public class Mondrian{
 	
 	/**
 	* Get the width of a dimension by calculating the distance between the highest and the lowest value.
-	* 
-	* @param partition The given data including all dimensions and all individuals
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
 	* @param dim The dimension to calculate the width of
 	* @return width The width of a given dimension of the given data
 	*/
-	public double getWidth(ArrayList<double[]> partition, int dim){
+	public double getWidth(int from, int to, int dim){
 		
-		// temporary array with all values of the given dimension
-		double[] valuesWithDim = new double[partition.size()];
-		for(int j = 0; j < partition.size(); j++){
-			valuesWithDim[j] = partition.get(j)[dim];
+		// find the lowest and the highest value in one pass and return the difference
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		double[] column = elements.getColumn(dim);
+		for(int j = from; j < to; j++){
+			double value = column[permutation[j]];
+			if(value < min){
+				min = value;
+			}
+			if(value > max){
+				max = value;
+			}
 		}
-		
-		// sort the values and return the difference
-		Arrays.sort(valuesWithDim);
-		return Math.abs(valuesWithDim[0]-valuesWithDim[partition.size()-1]);
+		return Math.abs(max - min);
 	}
 	
 	/**
 	* Calculates the median of all the values in one dimension
 	
-	* 
-	* @param partition The given data including all dimensions and all individuals
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
 	* @param dim the dimension that is evaluated
 	* @return splitVal Median of the dimension and the value where the dimension is going to be splitted
 	*/
-	public double findMedian(ArrayList<double[]> partition, int dim){
+	public double findMedian(int from, int to, int dim){
 		
-		// temporary hash set to store the different values in
-		ArrayList<Double> sortedValues = new ArrayList<Double>();
+		// temporary array to store the values in
+		double[] values = new double[to - from];
 		
-		for(int i = 0; i < partition.size(); i++){
-			sortedValues.add(partition.get(i)[dim]);
+		double[] column = elements.getColumn(dim);
+		for(int i = from; i < to; i++){
+			values[i - from] = column[permutation[i]];
 		}
 		
-		// sort the values in an ascending order
-		Collections.sort(sortedValues);
+		// move the middle value to its position in an ascending order without sorting all values
+		int middle = values.length / 2;
+		select(values, 0, values.length, middle);
 		
-		// calculate the median using the sorted array and under consideration 
+		// calculate the median under consideration
 		// of the difference between uneven and even amount of numbers
-		if(sortedValues.size() % 2 == 1){
-			return sortedValues.get(sortedValues.size() / 2);
+		if(values.length % 2 == 1){
+			return values[middle];
 		}else{
-			// Calculating median if the number of values is even 
-			return (sortedValues.get(sortedValues.size() / 2)
-			+sortedValues.get((sortedValues.size() - 1) / 2)) / 2;
+			// Calculating median if the number of values is even, the other middle value is the highest value before
+			double lowerMiddle = values[0];
+			for(int i = 1; i < middle; i++){
+				if(values[i] > lowerMiddle){
+					lowerMiddle = values[i];
+				}
+			}
+			return (values[middle] + lowerMiddle) / 2;
 		}
 	}
 	
 	/**
-	* Recursively partition the given data into groups as long it is allowed.
-	* Two steps, first clustering the data recursively and if not partitioning is posiible anymore 
-	* step two: anonymizing the data.
+	* Quickselect: rearranges the values between from and to so that the value at position rank is the one
+	* that would be there after sorting, all lower values are before and all higher values after it.
+	* Equal values are grouped in each step, so many duplicates do not slow it down.
+	*
+	* @param values The values to rearrange
+	* @param from The first position to consider
+	* @param to The position after the last position to consider
+	* @param rank The position whose value is searched
+	*/
+	public static void select(double[] values, int from, int to, int rank){
+		while(to - from > 1){
+			double pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to - 1]);
+			
+			// three parts: lower than the pivot [from, lower), equal [lower, higher], higher (higher, to)
+			int lower = from;
+			int higher = to - 1;
+			int i = from;
+			while(i <= higher){
+				if(values[i] < pivot){
+					double temp = values[lower];
+					values[lower] = values[i];
+					values[i] = temp;
+					lower++;
+					i++;
+				}else if(values[i] > pivot){
+					double temp = values[higher];
+					values[higher] = values[i];
+					values[i] = temp;
+					higher--;
+				}else{
+					i++;
+				}
+			}
+			
+			// continue only in the part that holds the searched position
+			if(rank < lower){
+				to = lower;
+			}else if(rank > higher){
+				from = higher + 1;
+			}else{
+				return;
+			}
+		}
+	}
+	
+	/**
+	* Quickselect like select, but rearranges the indices in a range of the permutation by the value of their element in a dimension.
+	*
+	* @param dim The dimension to compare the elements in
+	* @param from The first position to consider
+	* @param to The position after the last position to consider
+	* @param rank The position whose element is searched
+	*/
+	private void selectElements(int dim, int from, int to, int rank){
+		double[] column = elements.getColumn(dim);
+		while(to - from > 1){
+			double pivot = medianOfThree(column[permutation[from]], column[permutation[(from + to) >>> 1]], column[permutation[to - 1]]);
+			
+			// three parts: lower than the pivot [from, lower), equal [lower, higher], higher (higher, to)
+			int lower = from;
+			int higher = to - 1;
+			int i = from;
+			while(i <= higher){
+				double value = column[permutation[i]];
+				if(value < pivot){
+					int temp = permutation[lower];
+					permutation[lower] = permutation[i];
+					permutation[i] = temp;
+					lower++;
+					i++;
+				}else if(value > pivot){
+					int temp = permutation[higher];
+					permutation[higher] = permutation[i];
+					permutation[i] = temp;
+					higher--;
+				}else{
+					i++;
+				}
+			}
+			
+			// continue only in the part that holds the searched position
+			if(rank < lower){
+				to = lower;
+			}else if(rank > higher){
+				from = higher + 1;
+			}else{
+				return;
+			}
+		}
+	}
+	
+	/**
+	* Gets the middle one of three values, used as pivot for the quickselect.
+	*/
+	private static double medianOfThree(double a, double b, double c){
+		if(a < b){
+			if(b < c){
+				return b;
+			}
+			return a < c ? c : a;
+		}
+		if(a < c){
+			return a;
+		}
+		return b < c ? c : b;
+	}
+	
+	/**
+	* Partition the given data into groups as long it is allowed and anonymize the groups.
+	* The given elements are not changed, the anonymized values are stored for every cluster.
 	*
 	* @param data The given data including all dimensions and all individuals
 	*/
 	public void mondrian(ArrayList<double[]> data){
+		mondrian(DataMatrix.fromRows(data));
+	}
+	
+	/**
+	* Partition the given data stored by columns into groups as long it is allowed and anonymize the groups.
+	* The given data is not changed, the anonymized values are stored for every cluster.
+	*
+	* @param data The given data including all dimensions and all individuals
+	*/
+	public void mondrian(DataMatrix data){
+		elements = data;
+		permutation = new int[elements.getNumRows()];
+		for(int i = 0; i < permutation.length; i++){
+			permutation[i] = i;
+		}
+		anoynmizedPartition = null;
+		clusterSet = null;
+		
+		// without elements there are no clusters and no medians to find
+		if(permutation.length == 0){
+			clusters = new ClusterStore(numQI);
+			return;
+		}
+		
+		if(parallelism > 1 && permutation.length >= parallelThreshold){
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try{
+				clusters = pool.invoke(new MondrianTask(0, permutation.length));
+			}finally{
+				pool.shutdown();
+			}
+		}else{
+			clusters = new ClusterStore(numQI);
+			mondrian(0, permutation.length);
+		}
+	}
+	
+	/**
+	* Task for the parallel mode that partitions a range of the permutation and returns its clusters.
+	* Both halves of a big partition are new tasks, a small partition is partitioned sequentially.
+	*/
+	private class MondrianTask extends RecursiveTask<ClusterStore>{
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int from;
+		
+		private int to;
+		
+		public MondrianTask(int from, int to){
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected ClusterStore compute(){
+			ClusterStore store = new ClusterStore(numQI);
+			
+			// small partitions or partitions that are not split anymore are handled like in the sequential mode
+			if(to - from < parallelThreshold || to - from < 2*k){
+				mondrian(from, to, store);
+				return store;
+			}
+			int dim = chooseDimension(from, to);
+			if(dim != -1){
+				int middle = from + (to - from)/2;
+				selectElements(dim, from, to, middle);
+				
+				// the lhs is computed in this thread, the rhs can be stolen by another thread
+				MondrianTask rhs = new MondrianTask(middle, to);
+				rhs.fork();
+				store = new MondrianTask(from, middle).compute();
+				
+				// lhs before rhs so the clusters are in the order of the permutation
+				store.addAll(rhs.join());
+			}
+			return store;
+		}
+	}
+	
+	/**
+	* Recursively partition the given data into groups as long it is allowed.
+	* Two steps, first clustering the data recursively and if not partitioning is posiible anymore
+	* step two: anonymizing the data.
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
+	*/
+	public void mondrian(int from, int to){
+		mondrian(from, to, clusters);
+	}
+	
+	/**
+	* Recursively partition a range of the permutation and store the clusters in the given store.
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
+	* @param store The store for the clusters
+	*/
+	private void mondrian(int from, int to, ClusterStore store){
 		
 		/*
-		* check if it is possible to split the partition again that is by checking if 
-		* k-Anonymity is still guaranteed after this cut by checking if the amount of 
+		* check if it is possible to split the partition again that is by checking if
+		* k-Anonymity is still guaranteed after this cut by checking if the amount of
 		* individuals in the new partitions is k ore more
 		*/
-		if(data.size() >= 2*k){
-			cluster(data);
+		if(to - from >= 2*k){
+			cluster(from, to, store);
 		}
 		// if there are not enough elements left, we anonymize the data
 		else{
-			anonymize(data);
+			anonymize(from, to, store);
 		}
 	}
 	
 	/**
 	* Splits the given data in two clusters so both partitions have the same amount of elements.
-	* 
-	* @param data The partition of the data that is considered.
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
+	*/
+	public void cluster(int from, int to){
+		cluster(from, to, clusters);
+	}
+	
+	/**
+	* Splits a range of the permutation in two and stores the clusters of both in the given store.
 	*/
-	public void cluster(ArrayList<double[]> data){
+	private void cluster(int from, int to, ClusterStore store){
 		// set the dimension to make the cut in
-		int dim = chooseDimension(data);
+		int dim = chooseDimension(from, to);
 		if(dim != -1){
-			ArrayList<double[]> lhs = new ArrayList<double[]>();
-			ArrayList<double[]> rhs = new ArrayList<double[]>();
 			
-			// split the partition into two partitions(lhs and rhs) so the same amount of elements is in each partition
-			Collections.sort(data, new Comparator<double[]>() {
-            public int compare(double[] values, double[] otherValues) {
-                return new Double(values[dim]).compareTo(new Double(otherValues[dim]));
-            }});
+			// split the partition into two partitions(lhs and rhs) so the same amount of elements is in each partition,
+			// therefor only the lower half has to be before the higher half in the permutation and not be sorted
+			int middle = from + (to - from)/2;
+			selectElements(dim, from, to, middle);
 			
-			for(int i = 0; i < data.size(); i++){
-				if(i < data.size()/2){
-					lhs.add(data.get(i));
-				}else{
-					rhs.add(data.get(i));
-				}
-			}
-				
-			// use algorithm mondrian recursively for the new partitions
-			mondrian(rhs);
-			mondrian(lhs);
+			// use algorithm mondrian recursively for the new partitions, lhs first so the clusters are in the order of the permutation
+			mondrian(from, middle, store);
+			mondrian(middle, to, store);
 		}
 	}
 	
 	/**
 	* Anoynmize a given partition of the data by assigning each element in the partition the same value
-	* 
-	* @param data The partition of the data that is considered.
+	*
+	* @param from The first position of the partition in the permutation
+	* @param to The position after the last position of the partition
+	*/
+	public void anonymize(int from, int to){
+		anonymize(from, to, clusters);
+	}
+	
+	/**
+	* Anonymizes a range of the permutation and stores it as cluster in the given store.
 	*/
-	public void anonymize(ArrayList<double[]> data){
+	private void anonymize(int from, int to, ClusterStore store){
+		
 		// anonymize for all dimensions
+		double[] median = new double[numQI];
 		for(int j = 0; j < numQI; j++){
-		
-			double midValue = findMedian(data, j);
-			for(int i = 0; i < data.size(); i++){
-				data.get(i)[j] = midValue;
-			}
+			median[j] = findMedian(from, to, j);
 		}
 		
-		getClusterSet().add(0, new ArrayList<double[]>());
-		// returning the anonymized partitions
-		for(int i = 0; i < data.size(); i++){
-			getAnonymizedPartition().add(data.get(i));
-			getClusterSet().get(0).add(data.get(i));
-		}
+		// store the cluster as range of the permutation
+		store.add(from, to, median);
 	}
 	
 	/**
-	* Getter for the anonymized data after using mondrian
+	* Getter for the amount of clusters
+	*
+	* @return The amount of clusters
+	*/
+	public int getNumClusters(){
+		return clusters.numClusters;
+	}
+	
+	/**
+	* Getter for the amount of elements in a cluster
+	*
+	* @param cluster The index of the cluster
+	* @return The amount of elements in the cluster
+	*/
+	public int getClusterSize(int cluster){
+		return clusters.bounds[2 * cluster + 1] - clusters.bounds[2 * cluster];
+	}
+	
+	/**
+	* Getter for the anonymized value all elements in a cluster have
+	*
+	* @param cluster The index of the cluster
+	* @return The anonymized element of the cluster
+	*/
+	public double[] getClusterMedian(int cluster){
+		return Arrays.copyOfRange(clusters.medians, cluster * numQI, (cluster + 1) * numQI);
+	}
+	
+	/**
+	* Getter for the anonymized data after using mondrian, all elements of a cluster share one array
 	
 	* @return anoynmizedPartition the anonymized data
 	*/
 	public ArrayList<double[]> getAnonymizedPartition(){
+		if(anoynmizedPartition == null){
+			anoynmizedPartition = new ArrayList<double[]>();
+			for(int c = 0; c < getNumClusters(); c++){
+				double[] median = getClusterMedian(c);
+				for(int i = 0; i < getClusterSize(c); i++){
+					anoynmizedPartition.add(median);
+				}
+			}
+		}
 		return anoynmizedPartition;
 	}
 	
+	/**
+	* Getter for the anonymized data as weighted dataset, every cluster is stored once as its median with the amount of its elements.
+	*
+	* @return The median and the size of every cluster
+	*/
+	public WeightedDataset getWeightedPartition(){
+		double[][] representatives = new double[getNumClusters()][];
+		int[] counts = new int[getNumClusters()];
+		for(int c = 0; c < getNumClusters(); c++){
+			representatives[c] = getClusterMedian(c);
+			counts[c] = getClusterSize(c);
+		}
+		return new WeightedDataset(representatives, counts);
+	}
+	
 	/**
 	* Getter for the set of clusters
 	*
 	* @return clusterSet the set of clusters
 	*/
 	public ArrayList<ArrayList<double[]>> getClusterSet(){
+		if(clusterSet == null){
+			clusterSet = new ArrayList<ArrayList<double[]>>();
+			for(int c = 0; c < getNumClusters(); c++){
+				double[] median = getClusterMedian(c);
+				ArrayList<double[]> cluster = new ArrayList<double[]>();
+				for(int i = 0; i < getClusterSize(c); i++){
+					cluster.add(median);
+				}
+				clusterSet.add(cluster);
+			}
+		}
 		return clusterSet;
 	}
+
+	/**
+	* Flat store of clusters: for every cluster its first position in the permutation, the position after its last
+	* and the anonymized value of all its elements, one cluster after another.
+	*/
+	private static class ClusterStore{
+		
+		private int numQI;
+		
+		private int[] bounds;
+		
+		private double[] medians;
+		
+		private int numClusters;
+		
+		public ClusterStore(int numQI){
+			this.numQI = numQI;
+			bounds = new int[32];
+			medians = new double[16 * numQI];
+		}
+		
+		/**
+		* Adds a cluster at the end of the store.
+		*/
+		public void add(int from, int to, double[] median){
+			ensureCapacity(numClusters + 1);
+			bounds[2 * numClusters] = from;
+			bounds[2 * numClusters + 1] = to;
+			System.arraycopy(median, 0, medians, numClusters * numQI, numQI);
+			numClusters++;
+		}
+		
+		/**
+		* Adds all clusters of another store at the end of this store.
+		*/
+		public void addAll(ClusterStore other){
+			ensureCapacity(numClusters + other.numClusters);
+			System.arraycopy(other.bounds, 0, bounds, 2 * numClusters, 2 * other.numClusters);
+			System.arraycopy(other.medians, 0, medians, numClusters * numQI, other.numClusters * numQI);
+			numClusters += other.numClusters;
+		}
+		
+		private void ensureCapacity(int amount){
+			if(2 * amount > bounds.length){
+				bounds = Arrays.copyOf(bounds, Math.max(2 * bounds.length, 2 * amount));
+			}
+			if(amount * numQI > medians.length){
+				medians = Arrays.copyOf(medians, Math.max(2 * medians.length, amount * numQI));
+			}
+		}
+	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Writes the result rows of an evaluation into one file that stays open for the whole run.
+* The rows are collected in memory and written together when enough rows are collected or
+* when some time has passed since the last write. Every row is given in one call, so rows of
+* different threads are never mixed up.
+*
+* @author Yara Schuett
+*/
+public class ResultWriter implements AutoCloseable{
+	
+	private BufferedWriter bw;
+	
+	// rows that are not written yet
+	private StringBuilder rows;
+	
+	private int numRows;
+	
+	// amount of collected rows that are written at once
+	private int maxRows;
+	
+	// writes the collected rows regularly, so they are in the file even if the run stops
+	private ScheduledExecutorService timer;
+	
+	private boolean closed;
+	
+	/**
+	* Constructor that opens the file, rows are appended to it.
+	*
+	* @param path The path of the result file
+	* @param maxRows The amount of collected rows that are written at once
+	* @param flushMillis The time in milliseconds after which the collected rows are written, 0 to write only by amount
+	* @throws IOException If the file can not be opened
+	*/
+	public ResultWriter(String path, int maxRows, long flushMillis) throws IOException{
+		this(path, true, maxRows, flushMillis);
+	}
+	
+	/**
+	* Constructor that opens the file.
+	*
+	* @param path The path of the result file
+	* @param append True to append the rows to the file, false to replace the file
+	* @param maxRows The amount of collected rows that are written at once
+	* @param flushMillis The time in milliseconds after which the collected rows are written, 0 to write only by amount
+	* @throws IOException If the file can not be opened
+	*/
+	public ResultWriter(String path, boolean append, int maxRows, long flushMillis) throws IOException{
+		this.bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path, append)));
+		this.rows = new StringBuilder();
+		this.maxRows = Math.max(1, maxRows);
+		if(flushMillis > 0){
+			timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable task){
+					Thread thread = new Thread(task, "ResultWriter");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			timer.scheduleWithFixedDelay(new Runnable(){
+				@Override
+				public void run(){
+					flush();
+				}
+			}, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	* Adds a row, the line break is added at the end.
+	*
+	* @param row The whole row without line break
+	*/
+	public synchronized void writeRow(String row){
+		if(closed){
+			throw new IllegalStateException("the result writer is already closed");
+		}
+		rows.append(row).append('\n');
+		numRows++;
+		if(numRows >= maxRows){
+			flush();
+		}
+	}
+	
+	/**
+	* Writes all collected rows into the file.
+	*/
+	public synchronized void flush(){
+		if(closed || numRows == 0){
+			return;
+		}
+		try{
+			bw.write(rows.toString());
+			bw.flush();
+		}catch(IOException e){
+			System.out.println("Oooops!");
+		}
+		rows.setLength(0);
+		numRows = 0;
+	}
+	
+	/**
+	* Writes all collected rows and closes the file.
+	*/
+	@Override
+	public void close(){
+		if(timer != null){
+			timer.shutdownNow();
+		}
+		synchronized(this){
+			flush();
+			closed = true;
+			try{
+				bw.close();
+			}catch(IOException e){
+				System.out.println("Oooops!");
+			}
+		}
+	}
+}
@@ -4,7 +4,6 @@ import java.util.Arrays;
 import java.util.Random;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
-import java.util.Comparator;
 import java.io.IOException;
 
 /**
@@ -26,8 +25,6 @@ public class SDGS{
 	
 	private int numQI;
 	
-	private ArrayList<double[]> suppressedAnonymizedData;
-	
 	private Mondrian mondrian ;
 	
 	private int size;
@@ -57,41 +54,129 @@ public class SDGS{
 	* @param data The original database to anonymize
 	*/
 	public double[][] algorithmSDGSIndependent(double[][] data){
+		return algorithmSDGSIndependent(DataMatrix.fromRows(data));
+	}
+	
+	/**
+	* Method that implements the (k,beta)-SDGS with an independent generalization as second step for data stored by columns.
+	*
+	* @param data The original database to anonymize
+	*/
+	public double[][] algorithmSDGSIndependent(DataMatrix data){
 		
-		// first step: sampling from the input dataset with probability beta
+		// the first three steps, every leftover cluster is stored only once with its amount of elements
+		WeightedDataset cells = algorithmSDGSIndependentCells(data);
 		
-		ArrayList<double[]> chosenTuples = new ArrayList<double[]>();
+		double[][] convData;
 		
-		// comparing with a random value between 0 and 1 to select with probability beta
-		Random random = new Random();
-		for(int i = 0; i < data.length; i++){
-			// <= to select all tuples in the case beta is 1, when probability 0?
-			if(random.nextDouble() <= beta){
-				chosenTuples.add(data[i]);
-			}	
+		// check if after the last step there are still elements for the output
+		if(cells.getNumRepresentatives() != 0){
+			// expand the clusters back to their elements
+			convData = cells.toArray();
+			writeData(convData);
+			size = convData.length;
+		}else{
+			convData = new double[1][numQI];
+			writeData(convData);
+			size = 1;
+		}
+		return convData;
+	}
+	
+	/**
+	* Method that implements the (k,beta)-SDGS with an independent generalization as second step like algorithmSDGSIndependent,
+	* but returns every cluster with at least k elements only once together with its amount of elements.
+	*
+	* @param data The original database to anonymize
+	* @return The anonymized clusters with at least k elements and their amount of elements
+	*/
+	public WeightedDataset algorithmSDGSIndependentCells(double[][] data){
+		return algorithmSDGSIndependentCells(DataMatrix.fromRows(data));
+	}
+	
+	/**
+	* Method like algorithmSDGSIndependentCells for data stored by columns.
+	*
+	* @param data The original database to anonymize
+	* @return The anonymized clusters with at least k elements and their amount of elements
+	*/
+	public WeightedDataset algorithmSDGSIndependentCells(DataMatrix data){
+		
+		// first step: sampling from the input dataset with probability beta
+		DataMatrix chosenTuples = sample(data);
+		
+		// without any chosen tuple there is nothing to anonymize
+		if(chosenTuples.getNumRows() == 0){
+			return new WeightedDataset(new double[0][], new int[0]);
 		}
 		
 		// Second step: applying a data-independent procedure to each tuple
 		
 		IndependentAnonym anonym = new IndependentAnonym(chosenTuples);
 		
-		// get the anonymized data and store it for the next step
-		ArrayList<double[]> anonymizedData = anonym.anonymize();
+		// get the section of every anonymized value, the same sections are the same anonymized values
+		// the sections of a row are stored one after another, one for every column of the data
+		int[] sections = anonym.anonymizeToSections();
+		int numColumns = chosenTuples.getNumColumns();
 		
 		// third step: suppressing any tuple that appears less than k times
 		
-		suppressedAnonymizedData = new ArrayList<double[]>();
+		// count how often every anonymized tuple appears in one pass
+		CellTable cells = new CellTable(numColumns, anonym.getNumSections());
+		for(int i = 0; i < chosenTuples.getNumRows(); i++){
+			cells.add(sections, i * numColumns);
+		}
 		
-		// recursively sort all elements in all dimensions
-		sortArrayList(anonymizedData, 0);
+		// keep only the tuples that appear at least k times
+		int numKept = 0;
+		for(int cell = 0; cell < cells.getNumCells(); cell++){
+			if(cells.getCount(cell) >= k){
+				numKept++;
+			}
+		}
+		double[][] representatives = new double[numKept][];
+		int[] counts = new int[numKept];
+		int kept = 0;
+		for(int cell = 0; cell < cells.getNumCells(); cell++){
+			if(cells.getCount(cell) >= k){
+				representatives[kept] = new double[numColumns];
+				for(int j = 0; j < numColumns; j++){
+					representatives[kept][j] = anonym.getRepresentative(cells.getSection(cell, j));
+				}
+				counts[kept] = cells.getCount(cell);
+				kept++;
+			}
+		}
+		return new WeightedDataset(representatives, counts);
+	}
+	
+	/**
+	* Method that implements the (k,beta)-SDGS with Mondrian as second step.
+	* First step is drawing with probability beta and third step is eliminating clusters with less than k elements
+	*
+	* @param data The original database to anonymize
+	*/
+	public double[][] algorithmSDGS(double[][] data){
+		return algorithmSDGS(DataMatrix.fromRows(data));
+	}
+	
+	/**
+	* Method that implements the (k,beta)-SDGS with Mondrian as second step for data stored by columns.
+	*
+	* @param data The original database to anonymize
+	*/
+	public double[][] algorithmSDGS(DataMatrix data){
 		
-		double[][] convData;
+		// the first three steps, every cluster is stored only once with its median and its amount of elements
+		WeightedDataset cells = algorithmSDGSCells(data);
 		
 		// check if after the last step there are still elements for the output
-		if(suppressedAnonymizedData.size() != 0){
-			convData = toArray(suppressedAnonymizedData);
+		double[][] convData;
+		if(cells.getNumRepresentatives() != 0){
+			// expand the clusters back to their elements
+			convData = cells.toArray();
 			writeData(convData);
-			size = suppressedAnonymizedData.size();
+			size = convData.length;
 		}else{
 			convData = new double[1][numQI];
 			writeData(convData);
@@ -101,115 +186,63 @@ public class SDGS{
 	}
 	
 	/**
-	* Sorts a given arrayList recursively by sorting it in every step in a new dimension.
-	* Therefor the current considered dimension is given. 
-	* For all elements with the same value in this dimension call the method again.
-	* When it is sorted in all dimensions and more than k elements are leftover make a cluster with these elements.
+	* Method that implements the (k,beta)-SDGS with Mondrian as second step like algorithmSDGS,
+	* but returns every cluster only once as its median together with its amount of elements.
 	*
-	* @param data The data that needs to be sorted
-	* @param dimension The dimension to sort in
+	* @param data The original database to anonymize
+	* @return The anonymized clusters and their amount of elements
 	*/
-	public void sortArrayList(ArrayList<double[]> data, int dimension){
-		
-		// check if there are elements left to sort
-		if(dimension != numQI - 1){
-			
-			// check if it was already sorted in every dimension
-			if(data.size() != 0){
-			
-			// sort the elements recording to their value in the considered dimension
-			Collections.sort(data, new Comparator<double[]>() {
-				@Override
-				public int compare(double[] first, double[] second) {
-					return Double.compare(first[dimension], second[dimension]);
-				}
-			});
-			
-			// temporary list to store elements in with the same value for the considered dimension
-			ArrayList<double[]> temp = new ArrayList<double[]>();
-			
-			// add the first element and go through the rest of the given data
-			temp.add(data.get(0));
-			for(int i = 1; i < data.size(); i++){
-				
-				// when the element has the same value in the considered dimension add it to temporary and check the next element
-				if(Arrays.equals(data.get(i), data.get(i-1))){
-					temp.add(data.get(i));
-				}
-				
-				// if the next value differs from before call the method for all elements in temp restart the temp list
-				else{
-					sortArrayList(temp, dimension + 1);
-					temp.clear();
-				}
-			}
-			
-			// for the last elements also call the method
-			sortArrayList(temp, dimension + 1);
-			
-			}
-		}
-		
-		// when the list is already sorted for each dimension check if the amount of the leftover elements is greanter than k
-		else{
-			if(data.size() >= k){
-				suppressedAnonymizedData.addAll(data);
-			}
-		}
+	public WeightedDataset algorithmSDGSCells(double[][] data){
+		return algorithmSDGSCells(DataMatrix.fromRows(data));
 	}
 	
 	/**
-	* Method that implements the (k,beta)-SDGS with Mondrian as second step.
-	* First step is drawing with probability beta and third step is eliminating clusters with less than k elements
+	* Method like algorithmSDGSCells for data stored by columns.
 	*
 	* @param data The original database to anonymize
+	* @return The anonymized clusters and their amount of elements
 	*/
-	public double[][] algorithmSDGS(double[][] data){
+	public WeightedDataset algorithmSDGSCells(DataMatrix data){
 		
 		// first step: sampling from the input dataset with probability beta
+		DataMatrix chosenTuples = sample(data);
 		
-		ArrayList<double[]> chosenTuples = new ArrayList<double[]>();
-		
-		// comparing with a random value between 0 and 1 to select  with probability beta
-		Random random = new Random();
-		for(int i = 0; i < data.length; i++){
-			// <= to select all tuples in the case beta is 1, when probability 0?
-			if(random.nextDouble() <= beta){
-				chosenTuples.add(data[i]);
-			}	
+		// without any chosen tuple there is nothing to anonymize
+		if(chosenTuples.getNumRows() == 0){
+			return new WeightedDataset(new double[0][], new int[0]);
 		}
+		
 		// second step: applying a data-independent procedure to each tuple
 		// currently: mondrian with returning the median of a cluster
-		mondrian = new Mondrian(data[0].length, k);
+		mondrian = new Mondrian(data.getNumColumns(), k);
 		
 		mondrian.mondrian(chosenTuples);
 		
-		// get the anonymized data and store it for the next step
-		ArrayList<double[]> anonymizedData = mondrian.getAnonymizedPartition();
-		
 		// third step: suppressing any tuple that appears less than k times
-		// list to store the elements to suppress in
-		ArrayList<double[]> elementsToRemove = new ArrayList<double[]>();
+		// mondrian only splits a partition if both parts keep k elements, so like before all clusters are kept
+		return mondrian.getWeightedPartition();
+	}
+	
+	/**
+	* First step of the algorithm: chooses every tuple with probability beta.
+	*
+	* @param data The original database
+	* @return The chosen tuples
+	*/
+	private DataMatrix sample(DataMatrix data){
+		int[] chosenRows = new int[data.getNumRows()];
+		int numChosen = 0;
 		
-		// check for all elements if they appear more than k times and if they are already stored to delete
-		for(int i = 0; i < mondrian.getClusterSet().size(); i++){
-			if(mondrian.getClusterSet().get(i).size() < k){
-				elementsToRemove.add(mondrian.getClusterSet().get(i).get(0));
+		// comparing with a random value between 0 and 1 to select with probability beta
+		Random random = new Random();
+		for(int i = 0; i < data.getNumRows(); i++){
+			// <= to select all tuples in the case beta is 1, when probability 0?
+			if(random.nextDouble() <= beta){
+				chosenRows[numChosen] = i;
+				numChosen++;
 			}
 		}
-		
-		// check if after the last step there are still elements for the output
-		size = anonymizedData.size();
-		double[][] convData;
-		if(size != 0){
-			convData = toArray(anonymizedData);
-			writeData(convData);
-		}else{
-			convData = new double[1][numQI];
-			writeData(convData);
-			size = 1;
-		}
-		return convData;
+		return data.selectRows(chosenRows, numChosen);
 	}
 	
 	public double[][] toArray(ArrayList<double[]> list){
@@ -230,7 +263,16 @@ public class SDGS{
 	* @param data The data to write into the file
 	*/
 	private void writeData(double[][] data){
+		// without a path the synthetic database is only returned
+		if(path == null){
+			return;
+		}
 		try {
+			// binary files are written by columns without converting every value to text
+			if(path.endsWith(".bin")){
+				BinaryDataset.write(path, data, null);
+				return;
+			}
 			BufferedWriter bw = new BufferedWriter(new FileWriter(path));
 			
 			for (int k = 0; k < data.length; k++) {
@@ -249,6 +291,16 @@ public class SDGS{
 		}
 	}
 	
+	/**
+	* Setter for the path the synthetic database is written to. A path ending with .bin is written in the
+	* binary format of BinaryDataset, any other path as csv file. With null nothing is written.
+	*
+	* @param path The path of the file for the synthetic database
+	*/
+	public void setPath(String path){
+		this.path = path;
+	}
+	
 	public int getSize(){
 		return size;
 	}
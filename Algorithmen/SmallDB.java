@@ -7,7 +7,13 @@ import java.io.FileWriter;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
 
 /**
 * Implementing the algorithm Small Database Mechanism, presented in the
@@ -17,7 +23,7 @@ import java.util.Comparator;
 * @author Yara Schuett
 */
 
-public class SmallDB{
+public class SmallDB implements AutoCloseable{
 		
 	// variable defining the (epsilon, delta) differential privacy
 	private double epsilon;
@@ -41,7 +47,14 @@ public class SmallDB{
 	
 	private int threshold;
 	
-	public ArrayList<ArrayList<double[]>> clusters = new ArrayList<ArrayList<double[]>>();
+	// for every cluster one representative, all elements of a cluster are equal, shared with other runs so it must not be changed
+	public ArrayList<double[]> clusters = new ArrayList<double[]>();
+	
+	// cells of the generalized data, for every cluster the amount of elements in it, shared with other runs
+	private CellTable cells;
+	
+	// for every cluster the slot of its representative in every QI, calculated once per run
+	private int[][] clusterSlots;
 	
 	private int size;
 	
@@ -49,6 +62,39 @@ public class SmallDB{
 	
 	private String path;
 	
+	// histogram for the sections of the queries and the answers of the original database, calculated once per run
+	private Histogram histogram;
+	
+	private double[][] origDatabase;
+	
+	// the original database of a run with data stored by columns, its answers are known like the ones of origDatabase
+	private DataMatrix origMatrix;
+	
+	private double[][] origFrequencies;
+	
+	// seed of the random streams, with the same seed a run gives the same result for any amount of threads
+	private long seed;
+	
+	// amount of threads used to create and score the databases of the range
+	private int parallelism;
+	
+	// pool for the set amount of threads, created with the first parallel call and used by all runs until close
+	private ForkJoinPool pool;
+	
+	// stream that the seeds for every database of the range and the sampling are drawn from
+	private SplittableRandom random;
+	
+	// the generalization for the clusters, the range [-5,5) is divided in 16 sections
+	private static final int CLUSTER_SECTIONS = 16;
+	
+	private static final double CLUSTER_LOWER = -5;
+	
+	private static final double CLUSTER_UPPER = 5;
+	
+	// cache for the cluster tables, null to cluster the data in every run. By default only the runs of this instance
+	// share the table of their last dataset, a caller that owns the datasets can set a cache shared by many instances
+	private ClusterCache clusterCache = new ClusterCache(1);
+	
 	/**
 	* Constructor where all variable parameters for the algorithms are set. Also the path where the synthetic dabase will be stored is set.
 	*
@@ -71,6 +117,49 @@ public class SmallDB{
 		this. path = "../SyntheticData/SmallDB/SynthSmallDB2.csv";
 		this.sizeQueryClass = numQI * numSections;
 		this.amount = amount;
+		this.seed = new Random().nextLong();
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+	}
+	
+	/**
+	* Setter for the seed of the random streams, to be able to reproduce a run
+	*
+	* @param seed The seed for the random streams
+	*/
+	public void setSeed(long seed){
+		this.seed = seed;
+	}
+	
+	/**
+	* Setter for the amount of threads creating and scoring the databases of the range.
+	* With one thread everything runs in the calling thread without a pool.
+	*
+	* @param parallelism The amount of threads
+	*/
+	public void setParallelism(int parallelism){
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	* Shuts down the pool of this instance, a later parallel call creates a new one.
+	*/
+	@Override
+	public synchronized void close(){
+		if(pool != null){
+			pool.shutdown();
+			pool = null;
+		}
+	}
+	
+	/**
+	* Setter for the cache of the cluster tables. By default every instance has its own cache for its last dataset,
+	* with a cache shared by several instances a dataset is only clustered once for all of them. The cache keeps its datasets
+	* reachable, so the caller should clear it when the datasets are not needed anymore.
+	*
+	* @param clusterCache The cache, null to cluster the data in every run
+	*/
+	public void setClusterCache(ClusterCache clusterCache){
+		this.clusterCache = clusterCache;
 	}
 	
 	/**
@@ -81,15 +170,103 @@ public class SmallDB{
 	* @return The synthetic dataset returned by the exponential mechanism with the parameter like smallDB
 	*/
 	public double[][] smallDB(double[][] data){
+		prepareRun();
+		origFrequencies = histogram.frequencies(data);
+		
+		// cluster the data, the databases of the range are created from these clusters
+		clusterData(data);
+		double[][] anonymizedData = finishRun();
+		
+		// answers of the original database are known for later calls of the utility function
+		origDatabase = data;
+		return anonymizedData;
+	}
+	
+	/**
+	* Method that implements the idea of SmallDB for original data stored by columns.
+	*
+	* @param data The original data a synthetic dataset needs to be created
+	*
+	* @return The synthetic dataset returned by the exponential mechanism with the parameter like smallDB
+	*/
+	public double[][] smallDB(DataMatrix data){
+		prepareRun();
+		origFrequencies = histogram.frequencies(data);
+		
+		// cluster the data, the databases of the range are created from these clusters
+		clusterData(data);
+		double[][] anonymizedData = finishRun();
+		
+		// answers of the original database are known for later calls of the utility function
+		origMatrix = data;
+		return anonymizedData;
+	}
+	
+	/**
+	* Runs SmallDB for several epsilons at once. The range is created and scored only once, because the databases
+	* of the range and their utility do not depend on epsilon. Afterwards one database is selected for every epsilon
+	* from the stored utilities, the databases are not written to a file.
+	* For a single epsilon the result is the same as the one of smallDB with that epsilon and the same seed.
+	*
+	* @param data The original data a synthetic dataset needs to be created
+	* @param epsilons The epsilons a synthetic dataset is selected for
+	*
+	* @return For every epsilon the synthetic dataset selected by the exponential mechanism
+	*/
+	public ArrayList<double[][]> smallDB(double[][] data, double[] epsilons){
+		prepareRun();
+		origFrequencies = histogram.frequencies(data);
+		clusterData(data);
+		ArrayList<double[][]> anonymizedData = selectFromRange(origFrequencies, epsilons);
+		
+		// answers of the original database are known for later calls of the utility function
+		origDatabase = data;
+		return anonymizedData;
+	}
+	
+	/**
+	* Runs SmallDB for several epsilons at once for original data stored by columns.
+	*
+	* @param data The original data a synthetic dataset needs to be created
+	* @param epsilons The epsilons a synthetic dataset is selected for
+	*
+	* @return For every epsilon the synthetic dataset selected by the exponential mechanism
+	*/
+	public ArrayList<double[][]> smallDB(DataMatrix data, double[] epsilons){
+		prepareRun();
+		origFrequencies = histogram.frequencies(data);
+		clusterData(data);
+		ArrayList<double[][]> anonymizedData = selectFromRange(origFrequencies, epsilons);
+		
+		// answers of the original database are known for later calls of the utility function
+		origMatrix = data;
+		return anonymizedData;
+	}
+	
+	/**
+	* Sets the size of the databases, the histogram of the queries and the random stream for a new run.
+	*/
+	private void prepareRun(){
 		
 		// calculating the size of the databases like defined in SmallDB
 		size = (int) (Math.log(sizeQueryClass)/(alpha * alpha));
 		
-		// setting the range for the algorithm
-		ArrayList<double[][]> range = buildRange(data, size);
+		// the original database does not change during the run, so answer its queries only once
+		histogram = new Histogram(calculateRanges());
+		origDatabase = null;
+		origMatrix = null;
+		random = new SplittableRandom(seed);
+	}
+	
+	/**
+	* Selects the synthetic database from the range after the data is clustered and writes it.
+	*
+	* @return The synthetic dataset returned by the exponential mechanism
+	*/
+	private double[][] finishRun(){
 		
-		// call exponential mechanism with the defined parameters
-		double[][] anonymizedData = exponentialMechanism(data, range);
+		// call exponential mechanism with the defined parameters, creating and scoring the range one database after another
+		double[][] anonymizedData = selectFromRange(origFrequencies);
 		
 		// output the synthetic dataset to a csv file
 		writeData(anonymizedData);
@@ -110,85 +287,173 @@ public class SmallDB{
 	*/
 	public ArrayList<double[][]> buildRange(double[][] data, int size){
 		
-		// storing the elements in data in an ArrayList
-		ArrayList<double[]> dataList = new ArrayList<double[]>();
-		for(int i = 0; i < data.length; i++){
-			dataList.add(data[i]);
-		}
+		clusterData(data);
 		
-		// Call an algorithm to cluster the given dataset
-		IndependentAnonym anonym = new IndependentAnonym(dataList);
+		// every database of the range gets its own random stream, drawn in a fixed order
+		long[] seeds = drawSeeds();
 		
-		// get the anonymized data and store it for the next step
-		ArrayList<double[]> anonymizedData = anonym.anonymize();
-		
-		// recursively sort all elements in all dimensions and put same values in one cluster
-		sortArrayList(anonymizedData, 0);
+		// create as much datasets as defined in parallel, each one at its own position in the range
+		double[][][] tempDatabases = new double[amount][][];
+		forEachParallel(amount, new IntConsumer(){
+			@Override
+			public void accept(int j){
+				tempDatabases[j] = createDataset(size, new SplittableRandom(seeds[j]));
+			}
+		});
 		
 		// initialize the cluster
 		ArrayList<double[][]> range = new ArrayList<double[][]>();
-		
-		// create as much datasets as defined and add them to the range
 		for(int j = 0; j < amount; j++){
-			double[][] tempDatabase = createDataset(size);
-			range.add(tempDatabase);
+			range.add(tempDatabases[j]);
 		}
 		return range;
 	}
 	
 	/**
-	* Sorts a given arrayList recursively by sorting it in every step in a new dimension.
-	* Therefor the current considered dimension is given. 
-	* For all elements with the same value in this dimension call the method again.
-	* When it is sorted in all dimensions make a cluster for the leftover elements.
+	* First step of creating the range: generalize the given data and put same values in one cluster.
 	*
-	* @param data The data that needs to be sorted
-	* @param dimension The dimension to sort in
+	* @param data The original dataset
 	*/
-	public void sortArrayList(ArrayList<double[]> data, int dimension){
+	public void clusterData(double[][] data){
 		
-		// check if there are elements left to sort
-		if(data.size() > 0){
-			
-			// check if it was already sorted in every dimension
-			if(dimension < numQI - 1){
-				
-				// sort the elements recording to their value in the considered dimension
-				Collections.sort(data, new Comparator<double[]>() {
-					@Override
-					public int compare(double[] first, double[] second) {
-						return Double.compare(first[dimension], second[dimension]);
-					}
-				});
-				
-				// temporary list to store elements in with the same value for the considered dimension
-				ArrayList<double[]> temp = new ArrayList<double[]>();
-				
-				// add the first element and go through the rest of the given data
-				temp.add(data.get(0));
-				for(int i = 1; i < data.size(); i++){
-					
-					// when the element has the same value in the considered dimension add it to temporary and check the next element
-					if(data.get(i)[dimension] == data.get(i-1)[dimension]){
-						temp.add(data.get(i));
-					}
-					
-					// if the next value differs from before call the method for all elements in temp restart the temp list
-					else{
-						sortArrayList(temp, dimension + 1);
-						temp.clear();
-					}
-				}
-				
-				// for the last elements also call the method
-				sortArrayList(temp, dimension + 1);
-			
+		// the data is only stored by columns if its clusters are not in the cache
+		useClusters(data, new Callable<ClusterTable>(){
+			@Override
+			public ClusterTable call(){
+				return ClusterTable.build(DataMatrix.fromRows(data), CLUSTER_SECTIONS, CLUSTER_LOWER, CLUSTER_UPPER);
 			}
-			// when the list is already sorted for each dimension make a cluster with the leftover elements 
-			else{
-				clusters.add(data);
+		});
+	}
+	
+	/**
+	* First step of creating the range for data stored by columns.
+	*
+	* @param data The original dataset
+	*/
+	public void clusterData(DataMatrix data){
+		useClusters(data, new Callable<ClusterTable>(){
+			@Override
+			public ClusterTable call(){
+				return ClusterTable.build(data, CLUSTER_SECTIONS, CLUSTER_LOWER, CLUSTER_UPPER);
+			}
+		});
+	}
+	
+	/**
+	* Takes the clusters of a dataset from the cache or builds them if there is no cache.
+	* The clusters are only read by this run, so the same table can be used by several runs at the same time.
+	*
+	* @param dataset The dataset object the clusters belong to
+	* @param builder Builds the clusters of the dataset
+	*/
+	private void useClusters(Object dataset, Callable<ClusterTable> builder){
+		ClusterTable table;
+		if(clusterCache != null){
+			table = clusterCache.get(dataset, CLUSTER_SECTIONS, CLUSTER_LOWER, CLUSTER_UPPER, builder);
+		}else{
+			try{
+				table = builder.call();
+			}catch(Exception e){
+				throw new RuntimeException(e);
+			}
+		}
+		cells = table.getCells();
+		clusters = table.getRepresentatives();
+	}
+	
+	/**
+	* Draws the seed of the random stream for every database of the range in a fixed order.
+	*
+	* @return The seeds for the databases of the range
+	*/
+	private long[] drawSeeds(){
+		if(random == null){
+			random = new SplittableRandom(seed);
+		}
+		long[] seeds = new long[amount];
+		for(int j = 0; j < amount; j++){
+			seeds[j] = random.nextLong();
+		}
+		return seeds;
+	}
+	
+	/**
+	* Executes an action for every index from 0 to amount on a fork-join pool with the set amount of threads.
+	*
+	* @param amount The amount of indices
+	* @param action The action to execute for an index
+	*/
+	private void forEachParallel(int amount, IntConsumer action){
+		if(parallelism <= 1){
+			for(int i = 0; i < amount; i++){
+				action.accept(i);
 			}
-		}	
+			return;
+		}
+		invoke(new IndexTask(0, amount, action));
+	}
+	
+	/**
+	* Executes a task on a fork-join pool with the set amount of threads and waits for its result.
+	* With one thread the task runs in the calling thread, the tasks of SmallDB do not split then.
+	*
+	* @param task The task to execute
+	* @return The result of the task
+	*/
+	private <T> T invoke(ForkJoinTask<T> task){
+		if(parallelism <= 1){
+			return task.invoke();
+		}
+		return getPool().invoke(task);
+	}
+	
+	/**
+	* Returns the pool for the set amount of threads. The common pool is used if it has the same amount of threads,
+	* otherwise one pool is kept for all calls of this instance.
+	*
+	* @return The pool
+	*/
+	private synchronized ForkJoinPool getPool(){
+		if(parallelism == ForkJoinPool.getCommonPoolParallelism()){
+			return ForkJoinPool.commonPool();
+		}
+		if(pool == null || pool.getParallelism() != parallelism){
+			close();
+			pool = new ForkJoinPool(parallelism);
+		}
+		return pool;
+	}
+	
+	/**
+	* Task that splits a range of indices in halves until only one index is left and executes the action for it.
+	*/
+	private static class IndexTask extends RecursiveAction{
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int from;
+		
+		private int to;
+		
+		private IntConsumer action;
+		
+		public IndexTask(int from, int to, IntConsumer action){
+			this.from = from;
+			this.to = to;
+			this.action = action;
+		}
+		
+		@Override
+		protected void compute(){
+			if(to - from <= 1){
+				for(int i = from; i < to; i++){
+					action.accept(i);
+				}
+			}else{
+				int middle = (from + to) >>> 1;
+				invokeAll(new IndexTask(from, middle, action), new IndexTask(middle, to, action));
+			}
+		}
 	}
 	
 	/**
@@ -201,61 +466,175 @@ public class SmallDB{
 	* @return The synthetic dataset
 	*/
 	public double[][] createDataset(int size){
+		return createDataset(size, new SplittableRandom());
+	}
+	
+	/**
+	* Creates a dataset with a given size based on the clustering from the step before,
+	* drawing all random values from the given stream.
+	*
+	* @param size The required size for the synthetic dataset
+	* @param rdm The random stream of this dataset
+	* @return The synthetic dataset
+	*/
+	public double[][] createDataset(int size, SplittableRandom rdm){
+		return toDataset(createCandidate(size, rdm));
+	}
+	
+	/**
+	* Draws a database of the range like createDataset, but only stores which clusters it takes its elements from
+	* and how many. Because all elements in one cluster are equal, this is the whole database.
+	*
+	* @param size The required size for the synthetic dataset
+	* @param rdm The random stream of this dataset
+	* @return The clusters of the synthetic dataset with their amount of elements
+	*/
+	private Candidate createCandidate(int size, SplittableRandom rdm){
 		
 		// First step: divide in relevant and not relevant clusters
 		
-		// count the number of clusters that hold more than m elements
-		ArrayList<double[]> relevantClusters = new ArrayList<double[]>();
-		Random rdm = new Random();
+		// the indices of the clusters that are relevant
+		int[] relevantClusters = new int[clusters.size()];
+		int numRelevant = 0;
 		
 		// for every cluster check how many elements the cluster holds
 		for(int i = 0; i < clusters.size(); i++){
-			if(clusters.get(i).size()>0){
+			if(cells.getCount(i)>0){
 			
 				// more than threshold m or draw with probability of exponential function
-				if(clusters.get(i).size() >= m || expFunction(clusters.get(i).size(), m) < rdm.nextDouble()){
-					relevantClusters.add(clusters.get(i).get(0));
+				if(cells.getCount(i) >= m || expFunction(cells.getCount(i), m) < rdm.nextDouble()){
+					relevantClusters[numRelevant] = i;
+					numRelevant++;
 				}
 			}
 			
 		}
 		
-		// Second step: Create dataset from relevant clusters
-		
-		double[][] dataset = new double[size][numQI];
+		// Second step: count how many elements are drawn from every relevant cluster
+		int[] counts = new int[numRelevant];
 		
 		// check if more possible elements than the required size of the synthetic dataset
-		if(relevantClusters.size() <= size){
+		if(numRelevant <= size){
 			
 			// from each relevant cluster create one datapoint
-			for(int i = 0; i < relevantClusters.size(); i++){
-				dataset[i] = relevantClusters.get(i);
-			}
+			Arrays.fill(counts, 1);
 			
 			// for the rest of the elements randomly pick one of the relevant clusters
-			for(int i = relevantClusters.size(); i < size; i++){
-				
-				// select random cluster and draw an element from it
-				int temp = (int)(Math.random() * relevantClusters.size());
-				dataset[i] = relevantClusters.get(temp);
+			for(int i = numRelevant; i < size; i++){
+				counts[rdm.nextInt(numRelevant)]++;
 			}
 		}
 		
 		// more relevant clusters than the required size
 		else{
+			
+			// positions of the relevant clusters that are not drawn yet, a drawn cluster is removed from them
+			int[] remaining = new int[numRelevant];
+			for(int i = 0; i < numRelevant; i++){
+				remaining[i] = i;
+			}
+			int numRemaining = numRelevant;
 			for(int i = 0; i < size; i++){
-				
-				// draw randomly clusters to create a datapoint from and afterwards remove the cluster from the relevant clusters
-				int temp = (int)(Math.random() * relevantClusters.size());
-				dataset[i] = relevantClusters.get(temp);
-				relevantClusters.remove(temp);
+				int temp = rdm.nextInt(numRemaining);
+				counts[remaining[temp]] = 1;
+				System.arraycopy(remaining, temp + 1, remaining, temp, numRemaining - temp - 1);
+				numRemaining--;
+			}
+		}
+		return new Candidate(relevantClusters, counts);
+	}
+	
+	/**
+	* Creates the rows of a database of the range, every element is the representative of its cluster.
+	*
+	* @param candidate The clusters of the database with their amount of elements
+	* @return The synthetic dataset
+	*/
+	private double[][] toDataset(Candidate candidate){
+		double[][] dataset = new double[candidate.size][];
+		int row = 0;
+		for(int c = 0; c < candidate.clusters.length; c++){
+			double[] representative = clusters.get(candidate.clusters[c]);
+			for(int k = 0; k < candidate.counts[c]; k++){
+				dataset[row] = representative;
+				row++;
 			}
 		}
-		
-		relevantClusters.clear();
 		return dataset;
 	}
 	
+	/**
+	* Calculates the answers of a database of the range to all queries from its clusters. Every cluster is added
+	* with its amount of elements to the slots of its representative, so it does not matter how big the database is.
+	*
+	* @param candidate The clusters of the database with their amount of elements
+	* @return For each QI the proportion of elements in each section
+	*/
+	private double[][] frequencies(Candidate candidate){
+		int[][] slotCounts = new int[numQI][histogram.getNumSlots()];
+		for(int c = 0; c < candidate.clusters.length; c++){
+			int[] slots = clusterSlots[candidate.clusters[c]];
+			for(int i = 0; i < numQI; i++){
+				if(slots[i] >= 0){
+					slotCounts[i][slots[i]] += candidate.counts[c];
+				}
+			}
+		}
+		return histogram.frequencies(slotCounts, candidate.size);
+	}
+	
+	/**
+	* Bins the representative of every cluster into the slots of the histogram once per run.
+	*/
+	private void calculateClusterSlots(){
+		clusterSlots = new int[clusters.size()][numQI];
+		for(int c = 0; c < clusters.size(); c++){
+			for(int i = 0; i < numQI; i++){
+				clusterSlots[c][i] = histogram.slot(clusters.get(c)[i]);
+			}
+		}
+	}
+	
+	/**
+	* Database of the range stored as the clusters it takes its elements from and the amount of elements of each.
+	*/
+	private static class Candidate{
+		
+		// indices of the clusters with at least one element in the database, in ascending order
+		private int[] clusters;
+		
+		private int[] counts;
+		
+		// amount of elements of the database
+		private int size;
+		
+		/**
+		* Constructor that keeps only the clusters with at least one element.
+		*
+		* @param clusterIndices The indices of the clusters, at least as many as counts
+		* @param clusterCounts For every cluster the amount of elements
+		*/
+		public Candidate(int[] clusterIndices, int[] clusterCounts){
+			int amount = 0;
+			for(int c = 0; c < clusterCounts.length; c++){
+				if(clusterCounts[c] > 0){
+					amount++;
+				}
+			}
+			clusters = new int[amount];
+			counts = new int[amount];
+			int position = 0;
+			for(int c = 0; c < clusterCounts.length; c++){
+				if(clusterCounts[c] > 0){
+					clusters[position] = clusterIndices[c];
+					counts[position] = clusterCounts[c];
+					size += clusterCounts[c];
+					position++;
+				}
+			}
+		}
+	}
+	
 	/**
 	* Calculates the probability for a cluster with size value to be drawn as relevant in the method smallDB
 	* 
@@ -270,7 +649,10 @@ public class SmallDB{
 
 	/**
 	* The main part of the exponential mechanism that is used by the smallDB.
-	* We give the specified parameters towards smallDB and the database we work with
+	* We give the specified parameters towards smallDB and the database we work with.
+	* The database is drawn with the Gumbel-max trick: the database with the biggest sum of its
+	* logarithmic probability and a Gumbel distributed noise is selected. That is the same as drawing with the
+	* normed probabilities but there is no need to calculate exp or to norm the values.
 	*
 	* @param double[][] database The database we work with
 	* @param ArrayList<double[][]> range The range the exponential mechanism chooses a database from
@@ -282,57 +664,255 @@ public class SmallDB{
 		//calculate delta u depending on the chosen/given range
 		double deltaU = calculateDeltaU(range);
 		
-		// array to store the probability to be chosen for each possible database
-		double[] probability = new double[range.size()];
+		// array to store the logarithmic probability to be chosen for each possible database
+		double[] logProbability = new double[range.size()];
 		
-		Random random = new Random();
+		if(random == null){
+			random = new SplittableRandom(seed);
+		}
+		if(histogram == null){
+			histogram = new Histogram(calculateRangeDatabase(database));
+		}
 		
-		/*
-		* we calculate the probability for each database to be chosen by the given formula and store it in an array
-		* Also we sum up all values to be able to norm the values so we can really handle them as 
-		* probabilities.
-		*/
-		double sum = 0;
+		// we calculate the probability for each database to be chosen by the given formula in parallel and store it in an array
+		forEachParallel(range.size(), new IntConsumer(){
+			@Override
+			public void accept(int i){
+				logProbability[i] = calculateLogProbability(database, range.get(i), deltaU);
+			}
+		});
+		
+		// select the database with the biggest noisy logarithmic probability
+		int selected = -1;
+		double maxKey = Double.NEGATIVE_INFINITY;
 		for(int i = 0; i < range.size(); i++){
-			double tempProb = calculateProbability(database, range.get(i), deltaU);
-			probability[i] = tempProb;
-			sum += tempProb;
+			double key = logProbability[i] + gumbel(random);
+			if(selected == -1 || key > maxKey){
+				selected = i;
+				maxKey = key;
+			}
 		}
+		return range.get(selected);
 		
-		/*
-		* Dividing by the sum of all values to get the mathematical relations between the calculated
-		* values and the sum. We overwrite the old values we used as probability because these values 
-		* will further be used.
+	}
+	
+	/**
+	* The exponential mechanism without storing the range. Every database of the range is created
+	* and scored as soon as it is needed and only the database with the biggest noisy logarithmic probability is kept.
+	* Like in exponentialMechanism the database is drawn with the Gumbel-max trick.
+	*
+	* @param database The database we work with
+	* @return The database that is selected by the exponential algorithm
+	*/
+	public double[][] streamingExponentialMechanism(double[][] database){
+		if(histogram == null){
+			histogram = new Histogram(calculateRangeDatabase(database));
+		}
+		if(database == origDatabase){
+			return selectFromRange(origFrequencies);
+		}
+		return selectFromRange(histogram.frequencies(database));
+	}
+	
+	/**
+	* The exponential mechanism without storing the range for a database stored by columns.
+	*
+	* @param database The database we work with
+	* @return The database that is selected by the exponential algorithm
+	*/
+	public double[][] streamingExponentialMechanism(DataMatrix database){
+		if(histogram == null){
+			histogram = new Histogram(calculateRanges());
+		}
+		if(database == origMatrix){
+			return selectFromRange(origFrequencies);
+		}
+		return selectFromRange(histogram.frequencies(database));
+	}
+	
+	/**
+	* The exponential mechanism without storing the range for a database of which only the answers to the queries are known.
+	*
+	* @param frequencies The answers of the database we work with to all queries
+	* @return The database that is selected by the exponential algorithm
+	*/
+	private double[][] selectFromRange(double[][] frequencies){
+		
+		double deltaU = calculateDeltaU();
+		
+		// every database of the range gets its own random stream, drawn in a fixed order
+		long[] seeds = drawSeeds();
+		
+		calculateClusterSlots();
+		Selection selection = invoke(new SelectionTask(frequencies, deltaU, seeds, 0, amount));
+		
+		// without any database in the range there is nothing to select
+		if(selection == null){
+			return new double[1][numQI];
+		}
+		return toDataset(selection.candidate);
+	}
+	
+	/**
+	* The exponential mechanism for several epsilons. Every database of the range is created and scored once,
+	* it is kept as its clusters together with its utility and its noise for every epsilon. The noise is drawn from
+	* the stream of the database after it is created, the first value like in selectFromRange for a single epsilon.
+	* Only the selected databases are created as rows.
+	*
+	* @param frequencies The answers of the database we work with to all queries
+	* @param epsilons The epsilons a database is selected for
+	* @return For every epsilon the database that is selected by the exponential algorithm
+	*/
+	private ArrayList<double[][]> selectFromRange(double[][] frequencies, double[] epsilons){
+		
+		double deltaU = calculateDeltaU();
+		
+		// every database of the range gets its own random stream, drawn in a fixed order
+		long[] seeds = drawSeeds();
+		
+		// every database only as its clusters, its utility and its noise for every epsilon
+		calculateClusterSlots();
+		Candidate[] candidates = new Candidate[amount];
+		double[] utilities = new double[amount];
+		double[][] noise = new double[epsilons.length][amount];
+		forEachParallel(amount, new IntConsumer(){
+			@Override
+			public void accept(int j){
+				SplittableRandom rdm = new SplittableRandom(seeds[j]);
+				candidates[j] = createCandidate(size, rdm);
+				utilities[j] = worstCaseDifference(frequencies, frequencies(candidates[j]));
+				for(int e = 0; e < epsilons.length; e++){
+					noise[e][j] = gumbel(rdm);
+				}
+			}
+		});
+		
+		// select with the Gumbel-max trick for every epsilon, for the same key the database earlier in the range
+		ArrayList<double[][]> selected = new ArrayList<double[][]>();
+		double[][][] datasets = new double[amount][][];
+		for(int e = 0; e < epsilons.length; e++){
+			int best = -1;
+			double maxKey = Double.NEGATIVE_INFINITY;
+			for(int j = 0; j < amount; j++){
+				double key = (epsilons[e] * utilities[j])/2 * deltaU + noise[e][j];
+				if(best == -1 || key > maxKey){
+					best = j;
+					maxKey = key;
+				}
+			}
+			
+			// without any database in the range there is nothing to select
+			if(best == -1){
+				selected.add(new double[1][numQI]);
+				continue;
+			}
+			if(datasets[best] == null){
+				datasets[best] = toDataset(candidates[best]);
+			}
+			selected.add(datasets[best]);
+		}
+		return selected;
+	}
+	
+	/**
+	* Draws a Gumbel distributed value, the noise for the Gumbel-max trick.
+	*
+	* @param rdm The random stream to draw from
+	* @return The Gumbel distributed value
+	*/
+	private double gumbel(SplittableRandom rdm){
+		return - Math.log(- Math.log(rdm.nextDouble()));
+	}
+	
+	/**
+	* Database of the range together with its noisy logarithmic probability and its position in the range.
+	*/
+	private static class Selection{
+		
+		private double key;
+		
+		private int index;
+		
+		private Candidate candidate;
+		
+		public Selection(double key, int index, Candidate candidate){
+			this.key = key;
+			this.index = index;
+			this.candidate = candidate;
+		}
+		
+		/**
+		* Selects the better of two selections, for the same key the one earlier in the range.
+		*
+		* @param other The other selection
+		* @return The selection with the bigger key
 		*/
-		for(int i = 0; i < probability.length; i++){
-			if(i == 0){
-				probability[0] = probability[0]/sum;
-			}else{
-				probability[i] = probability[i-1] + probability[i]/sum;
+		public Selection max(Selection other){
+			if(other == null){
+				return this;
+			}
+			if(other.key > key || (other.key == key && other.index < index)){
+				return other;
 			}
+			return this;
 		}
+	}
+	
+	/**
+	* Task that creates and scores the databases from one position of the range to another
+	* and returns only the selected one.
+	*/
+	private class SelectionTask extends RecursiveTask<Selection>{
 		
-		// the database we are going to select from the given range considering the calculated probabilities
-		double[][] selectedDatabase = new double[range.get(0).length][range.get(0)[0].length];
+		private static final long serialVersionUID = 1L;
 		
-		// getting a random value between 0 and 1
-		double prob = random.nextDouble();
+		// answers of the database we work with to all queries
+		private double[][] frequencies;
 		
-		// checking which database is chosen by comparing with the randomly generated value 
-		for(int i = 0; i < range.size(); i++){
-			if(i == 0){
-				if(prob < probability[0]){
-					selectedDatabase = range.get(0);
-					break;
+		private double deltaU;
+		
+		private long[] seeds;
+		
+		private int from;
+		
+		private int to;
+		
+		public SelectionTask(double[][] frequencies, double deltaU, long[] seeds, int from, int to){
+			this.frequencies = frequencies;
+			this.deltaU = deltaU;
+			this.seeds = seeds;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Selection compute(){
+			
+			// with one thread the whole range is created and scored in this task
+			if(to - from <= 1 || parallelism <= 1){
+				Selection selection = null;
+				for(int j = from; j < to; j++){
+					
+					// create the database, score it and draw its noise from its own stream
+					SplittableRandom rdm = new SplittableRandom(seeds[j]);
+					Candidate element = createCandidate(size, rdm);
+					double utility = worstCaseDifference(frequencies, frequencies(element));
+					double key = (epsilon * utility)/2 * deltaU + gumbel(rdm);
+					selection = new Selection(key, j, element).max(selection);
 				}
+				return selection;
 			}
-			else if(probability[i-1] < prob && prob < probability[i]){
-				selectedDatabase = range.get(i);
-				break;
+			int middle = (from + to) >>> 1;
+			SelectionTask left = new SelectionTask(frequencies, deltaU, seeds, from, middle);
+			SelectionTask right = new SelectionTask(frequencies, deltaU, seeds, middle, to);
+			right.fork();
+			Selection selection = left.compute();
+			Selection other = right.join();
+			if(selection == null){
+				return other;
 			}
+			return selection.max(other);
 		}
-		return selectedDatabase;
-		
 	}
 	
 	/**
@@ -345,7 +925,21 @@ public class SmallDB{
 	* @return double probability the probability a specific database from the range is chosen
 	*/
 	public double calculateProbability(double[][] database, double[][] element, double deltaU){
-		return Math.exp((epsilon * utilityFunction(database, element))/2 * deltaU);
+		return Math.exp(calculateLogProbability(database, element, deltaU));
+	}
+	
+	/**
+	* calculate the logarithm of the (not normed) probability a database is chosen with.
+	* In contrast to calculateProbability this can not overflow for a big epsilon.
+	* 
+	* @param double[][] database the given database to work with
+	* @param double[][] element the database to calculate the probability of
+	* @param double deltaU 
+	*
+	* @return double the logarithmic probability a specific database from the range is chosen
+	*/
+	public double calculateLogProbability(double[][] database, double[][] element, double deltaU){
+		return (epsilon * utilityFunction(database, element))/2 * deltaU;
 	}
 	
 	/**
@@ -359,14 +953,59 @@ public class SmallDB{
 	* @return double worstCase The biggest difference over all queries on two different given database
 	*/
 	public double utilityFunction(double[][] databaseX, double[][] databaseY){
-		// get the ranges for both databases
-		double[][] rangeX = calculateRangeDatabase(databaseX);
-		double[][] rangeY = calculateRangeDatabase(databaseY);
+		// the sections of the queries are the same for both databases
+		if(histogram == null){
+			histogram = new Histogram(calculateRangeDatabase(databaseX));
+		}
+		
+		// get the answers to all queries for both databases, for the original database they are already known
+		double[][] frequenciesX;
+		if(databaseX == origDatabase){
+			frequenciesX = origFrequencies;
+		}else{
+			frequenciesX = histogram.frequencies(databaseX);
+		}
+		double[][] frequenciesY = histogram.frequencies(databaseY);
+		
+		return worstCaseDifference(frequenciesX, frequenciesY);
+	}
+	
+	/**
+	* Calculates the worst case in difference like utilityFunction for a database x stored by columns.
+	*
+	* @param databaseX The given database to work with
+	* @param databaseY The database to measure the utility of
+	* @return The biggest difference over all queries on two different given database
+	*/
+	public double utilityFunction(DataMatrix databaseX, double[][] databaseY){
+		if(histogram == null){
+			histogram = new Histogram(calculateRanges());
+		}
+		
+		// for the original database of the last run the answers are already known
+		double[][] frequenciesX;
+		if(databaseX == origMatrix){
+			frequenciesX = origFrequencies;
+		}else{
+			frequenciesX = histogram.frequencies(databaseX);
+		}
+		return worstCaseDifference(frequenciesX, histogram.frequencies(databaseY));
+	}
+	
+	/**
+	* Calculates the utility function like utilityFunction from the answers of both databases to all queries.
+	*
+	* @param frequenciesX The answers of the given database to work with
+	* @param frequenciesY The answers of the database to measure the utility of
+	*
+	* @return double worstCase The biggest difference over all queries, negated
+	*/
+	private double worstCaseDifference(double[][] frequenciesX, double[][] frequenciesY){
 		
 		// get the worst case difference
 		double maxValue = 0;
 		for(int i = 0; i < sizeQueryClass; i++){
-			double tempValue = Math.abs(query(databaseX, i, rangeX) - query(databaseY, i, rangeY));
+			double tempValue = Math.abs(query(frequenciesX, i) - query(frequenciesY, i));
 			if(tempValue > maxValue){
 				maxValue = tempValue;
 			}
@@ -381,6 +1020,15 @@ public class SmallDB{
 	* @param database The database to calculate the ranges for
 	*/
 	public double[][] calculateRangeDatabase(double[][] database){
+		return calculateRanges();
+	}
+	
+	/**
+	* Calculates the sections of the queries, they are the same for every database.
+	*
+	* @return For each section the min and the max value
+	*/
+	private double[][] calculateRanges(){
 		double[][] range = new double[numSections][2];
 		
 		// for each section store the min and the max values
@@ -404,13 +1052,12 @@ public class SmallDB{
 	* Implementation of the queries we are allowing on our given database.
 	* Currently: How many elements have a value as a given attribute in a given section.
 	*
-	* @param database The considered database.
+	* @param frequencies The relative frequencies of the considered database calculated by the histogram.
 	* @param indexQuery The index of the query out of the query class that is considered.
-	* @param range The range of the values for all dimensions
 	*
 	* @return proportion Proportion of elements with attribute i in this range
 	*/
-	public double query(double[][] database, int indexQuery, double[][] range){
+	public double query(double[][] frequencies, int indexQuery){
 		
 		// we go through all sections of one QID and than go to the next QID
 		
@@ -420,40 +1067,8 @@ public class SmallDB{
 		// calculate the section of the values in the regarded QID the given query is demanding
 		int regardedSection = indexQuery % numSections;
 		
-		// store the begin and the end of the range
-		double min = range[regardedSection][0];
-		
-		double max = range[regardedSection][1];
-		
-		// counter for the amount of elements
-		int numElements = 0;
-		
-		// check for each element in the database if it has the value in the regarded QI that is in the regarded section
-		for(int k = 0; k < database.length; k++){
-			
-			// store the current considered entry
-			double temp = database[k][regardedQI];
-			
-			// check if it is the last because then the range is [from, to]
-			// otherwise it ist [from, to)
-			if(regardedSection == numSections - 1){
-				
-				//check if the considered value is in the regarded section
-				if(temp >= min && temp <= max){
-					// increase the amount of elements
-					numElements += 1;
-				}
-			}else{
-				//check if the considered value is in the regarded section
-				if(temp >=  min && temp < max){
-					// increase the amount of elements
-					numElements += 1;
-				}
-			}	
-		}
-		
 		// return proportion of elements with value in the given section
-		return (double) numElements/database.length;
+		return frequencies[regardedQI][regardedSection];
 	}
 	
 	/**
@@ -467,16 +1082,44 @@ public class SmallDB{
 	* @return double deltaU
 	*/
 	public double calculateDeltaU(ArrayList<double[][]> range){
+		return calculateDeltaU();
+	}
+	
+	/**
+	* calculates delta u without a stored range. Like for a given range delta u is 1 for the allowed queries.
+	*
+	* @return double deltaU
+	*/
+	public double calculateDeltaU(){
 		return 1;
 	}
 	
+	/**
+	* Setter for the path the synthetic database is written to. A path ending with .bin is written in the
+	* binary format of BinaryDataset, any other path as csv file. With null nothing is written.
+	*
+	* @param path The path of the file for the synthetic database
+	*/
+	public void setPath(String path){
+		this.path = path;
+	}
+	
 	public int getSize(){
 		return size;
 	}
 	
 	// von Florians StandardizeDataset modifiziert übernommen
 	private void writeData(double[][] data){
+		// without a path the synthetic database is only returned
+		if(path == null){
+			return;
+		}
 		try {
+			// binary files are written by columns without converting every value to text
+			if(path.endsWith(".bin")){
+				BinaryDataset.write(path, data, null);
+				return;
+			}
 			BufferedWriter bw = new BufferedWriter(new FileWriter(path));
 			for (int k = 0; k < data.length; k++) {
 				for (int j = 0; j < data[0].length; j++) {
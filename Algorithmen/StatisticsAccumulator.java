@@ -0,0 +1,188 @@
+/**
+* Calculates the mean, the variance and the covariance of a dataset in one pass. The rows can be given
+* one by one or in chunks, so the dataset does not need to be stored. The values are updated like
+* Welford proposed, two accumulators of different parts of a dataset can be merged like Chan et al. proposed.
+*
+* @author Yara Schuett
+*/
+public class StatisticsAccumulator{
+	
+	private int numQI;
+	
+	// amount of rows added so far
+	private long count;
+	
+	// mean of each attribute of the rows added so far
+	private double[] mean;
+	
+	// sum over all rows of (valueDim1-mean)(valueDim2-mean), only for dim1 <= dim2 at position dim1 * numQI + dim2
+	private double[] comoment;
+	
+	// difference of the row to the old mean, reused for every added row
+	private double[] delta;
+	
+	/**
+	* Constructor where the amount of attributes is set and an empty accumulator is created.
+	*
+	* @param numQI The amount of attributes of a row
+	*/
+	public StatisticsAccumulator(int numQI){
+		this.numQI = numQI;
+		mean = new double[numQI];
+		comoment = new double[numQI * numQI];
+		delta = new double[numQI];
+	}
+	
+	/**
+	* Adds one row.
+	*
+	* @param row The row to add
+	*/
+	public void add(double[] row){
+		add(row, 1);
+	}
+	
+	/**
+	* Adds a row a given amount of times.
+	*
+	* @param row The row to add
+	* @param weight How often the row is added
+	*/
+	public void add(double[] row, long weight){
+		if(weight <= 0){
+			return;
+		}
+		count += weight;
+		double factor = (double) weight / count;
+		
+		// the difference to the old mean and the difference to the new mean
+		for(int i = 0; i < numQI; i++){
+			delta[i] = row[i] - mean[i];
+			mean[i] += delta[i] * factor;
+		}
+		for(int i = 0; i < numQI; i++){
+			double weightedDelta = weight * delta[i];
+			int position = i * numQI;
+			for(int j = i; j < numQI; j++){
+				comoment[position + j] += weightedDelta * (row[j] - mean[j]);
+			}
+		}
+	}
+	
+	/**
+	* Adds a chunk of rows.
+	*
+	* @param rows The rows to add
+	*/
+	public void add(double[][] rows){
+		for(int i = 0; i < rows.length; i++){
+			add(rows[i], 1);
+		}
+	}
+	
+	/**
+	* Adds all rows of a database stored by columns.
+	*
+	* @param rows The rows to add
+	*/
+	public void add(DataMatrix rows){
+		double[] row = new double[numQI];
+		for(int i = 0; i < rows.getNumRows(); i++){
+			add(rows.getRow(i, row), 1);
+		}
+	}
+	
+	/**
+	* Adds all rows of a weighted database, every representative once with the amount of rows it stands for.
+	*
+	* @param rows The rows to add
+	*/
+	public void add(WeightedDataset rows){
+		double[][] representatives = rows.getRepresentatives();
+		int[] counts = rows.getCounts();
+		for(int i = 0; i < representatives.length; i++){
+			add(representatives[i], counts[i]);
+		}
+	}
+	
+	/**
+	* Merges the rows of another accumulator into this one. Afterwards this accumulator has the same values as if
+	* it got the rows of both accumulators.
+	*
+	* @param other The accumulator to merge
+	*/
+	public void merge(StatisticsAccumulator other){
+		if(other.count == 0){
+			return;
+		}
+		if(count == 0){
+			count = other.count;
+			System.arraycopy(other.mean, 0, mean, 0, numQI);
+			System.arraycopy(other.comoment, 0, comoment, 0, comoment.length);
+			return;
+		}
+		long newCount = count + other.count;
+		double factor = (double) count * other.count / newCount;
+		
+		for(int i = 0; i < numQI; i++){
+			delta[i] = other.mean[i] - mean[i];
+		}
+		for(int i = 0; i < numQI; i++){
+			int position = i * numQI;
+			for(int j = i; j < numQI; j++){
+				comoment[position + j] += other.comoment[position + j] + delta[i] * delta[j] * factor;
+			}
+		}
+		for(int i = 0; i < numQI; i++){
+			mean[i] += delta[i] * other.count / newCount;
+		}
+		count = newCount;
+	}
+	
+	/**
+	* Getter for the amount of rows
+	*
+	* @return The amount of rows added so far
+	*/
+	public long getCount(){
+		return count;
+	}
+	
+	/**
+	* Getter for the mean of each attribute
+	*
+	* @return Array with the mean for each attribute
+	*/
+	public double[] getMean(){
+		return mean.clone();
+	}
+	
+	/**
+	* Calculates the standard derivation of each attribute like UtilityCov, the root of the average squared difference to the mean.
+	*
+	* @return Array with the standard derivation for each attribute
+	*/
+	public double[] getStandardDerivation(){
+		double[] standardDerivation = new double[numQI];
+		for(int i = 0; i < numQI; i++){
+			standardDerivation[i] = Math.sqrt(comoment[i * numQI + i] / count);
+		}
+		return standardDerivation;
+	}
+	
+	/**
+	* Calculates the covariance matrix like Covariance, dividing by the amount of rows - 1.
+	*
+	* @return The covariance matrix
+	*/
+	public double[][] getCovMatrix(){
+		double[][] covMatrix = new double[numQI][numQI];
+		for(int i = 0; i < numQI; i++){
+			for(int j = i; j < numQI; j++){
+				covMatrix[i][j] = comoment[i * numQI + j] / (count - 1);
+				covMatrix[j][i] = covMatrix[i][j];
+			}
+		}
+		return covMatrix;
+	}
+}
\ No newline at end of file
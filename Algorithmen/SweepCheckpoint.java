@@ -0,0 +1,232 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+* Log of the finished cells of a sweep, so an interrupted sweep can continue where it stopped.
+* The log is a binary file: a header with a magic number, the version, the fingerprint of the grid, the amount of cells
+* and the length of the result file when the sweep started, afterwards one record for every finished cell with its index, its values and a checksum.
+* Records are only appended and forced to the disk, so a crash can only destroy the last record. Such a torn record
+* is recognized by its length or its checksum and cut off when the log is opened again.
+*
+* @author Yara Schuett
+*/
+public class SweepCheckpoint implements AutoCloseable{
+	
+	// "SCP1" at the start of every log
+	public static final int MAGIC = 0x53435031;
+	
+	public static final int VERSION = 2;
+	
+	private static final int HEADER_SIZE = 28;
+	
+	// more values for one cell are taken as a broken record
+	private static final int MAX_VALUES = 1 << 16;
+	
+	private String path;
+	
+	private FileChannel channel;
+	
+	// for every cell its values, null if the cell is not finished
+	private double[][] values;
+	
+	private int numCompleted;
+	
+	// length of the result file before the first row of the sweep was written
+	private long resultLength;
+	
+	/**
+	* Opens the log of a sweep or creates it. The finished cells of an existing log are loaded.
+	*
+	* @param path The path of the log
+	* @param fingerprint Value that changes when the grid changes, a log of another grid is not used
+	* @param numCells The amount of cells of the grid
+	* @param resultLength The current length of the result file, only stored if the log is created
+	* @throws IOException If the log can not be read or written or belongs to another grid
+	*/
+	public SweepCheckpoint(String path, long fingerprint, int numCells, long resultLength) throws IOException{
+		this.path = path;
+		this.values = new double[numCells][];
+		channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try{
+			if(channel.size() < HEADER_SIZE){
+				writeHeader(fingerprint, numCells, resultLength);
+			}else{
+				readLog(fingerprint, numCells);
+			}
+		}catch(IOException e){
+			channel.close();
+			throw e;
+		}
+	}
+	
+	private void writeHeader(long fingerprint, int numCells, long resultLength) throws IOException{
+		this.resultLength = resultLength;
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putLong(fingerprint);
+		header.putInt(numCells);
+		header.putLong(resultLength);
+		header.flip();
+		channel.truncate(0);
+		channel.position(0);
+		while(header.hasRemaining()){
+			channel.write(header);
+		}
+		channel.force(true);
+	}
+	
+	/**
+	* Reads the header and all complete records, a torn record at the end is cut off.
+	*/
+	private void readLog(long fingerprint, int numCells) throws IOException{
+		long size = channel.size();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(header, 0);
+		header.flip();
+		if(header.getInt() != MAGIC || header.getInt() != VERSION){
+			throw new IOException(path + " is no checkpoint of a sweep");
+		}
+		if(header.getLong() != fingerprint || header.getInt() != numCells){
+			throw new IOException(path + " belongs to another grid, delete it to start the sweep again");
+		}
+		resultLength = header.getLong();
+		
+		long position = HEADER_SIZE;
+		ByteBuffer start = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		while(position + 8 <= size){
+			start.clear();
+			readFully(start, position);
+			start.flip();
+			int cell = start.getInt();
+			int numValues = start.getInt();
+			if(cell < 0 || cell >= numCells || numValues < 0 || numValues > MAX_VALUES){
+				break;
+			}
+			int recordSize = 8 + numValues * Double.BYTES + 4;
+			if(position + recordSize > size){
+				break;
+			}
+			ByteBuffer record = ByteBuffer.allocate(recordSize).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(record, position);
+			record.flip();
+			CRC32 crc = new CRC32();
+			crc.update(record.array(), 0, recordSize - 4);
+			record.position(8);
+			double[] cellValues = new double[numValues];
+			record.asDoubleBuffer().get(cellValues);
+			if(record.getInt(recordSize - 4) != (int) crc.getValue()){
+				break;
+			}
+			if(values[cell] == null){
+				numCompleted++;
+			}
+			values[cell] = cellValues;
+			position += recordSize;
+		}
+		
+		// cut off a torn record, new records are appended after the last complete one
+		if(position < size){
+			channel.truncate(position);
+			channel.force(true);
+		}
+		channel.position(position);
+	}
+	
+	/**
+	* Appends a finished cell to the log and forces it to the disk.
+	*
+	* @param cell The index of the cell
+	* @param cellValues The values of the cell
+	* @throws IOException If the log can not be written
+	*/
+	public synchronized void complete(int cell, double[] cellValues) throws IOException{
+		int recordSize = 8 + cellValues.length * Double.BYTES + 4;
+		ByteBuffer record = ByteBuffer.allocate(recordSize).order(ByteOrder.LITTLE_ENDIAN);
+		record.putInt(cell);
+		record.putInt(cellValues.length);
+		for(int i = 0; i < cellValues.length; i++){
+			record.putDouble(cellValues[i]);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 0, recordSize - 4);
+		record.putInt((int) crc.getValue());
+		record.flip();
+		while(record.hasRemaining()){
+			channel.write(record);
+		}
+		channel.force(false);
+		
+		if(values[cell] == null){
+			numCompleted++;
+		}
+		values[cell] = cellValues.clone();
+	}
+	
+	/**
+	* Checks if a cell is already finished.
+	*
+	* @param cell The index of the cell
+	* @return True if the log has the values of the cell
+	*/
+	public synchronized boolean isCompleted(int cell){
+		return values[cell] != null;
+	}
+	
+	/**
+	* Getter for the values of a finished cell
+	*
+	* @param cell The index of the cell
+	* @return The values of the cell, null if it is not finished
+	*/
+	public synchronized double[] getValues(int cell){
+		return values[cell] == null ? null : values[cell].clone();
+	}
+	
+	/**
+	* Getter for the length of the result file when the sweep started, everything behind it was written by this sweep
+	*
+	* @return The length of the result file in bytes
+	*/
+	public long getResultLength(){
+		return resultLength;
+	}
+	
+	/**
+	* Getter for the amount of finished cells
+	*
+	* @return The amount of finished cells
+	*/
+	public synchronized int getNumCompleted(){
+		return numCompleted;
+	}
+	
+	@Override
+	public synchronized void close() throws IOException{
+		channel.close();
+	}
+	
+	/**
+	* Closes the log and deletes it, used when the whole sweep is finished.
+	*/
+	public synchronized void delete() throws IOException{
+		channel.close();
+		new File(path).delete();
+	}
+	
+	private void readFully(ByteBuffer buffer, long position) throws IOException{
+		while(buffer.hasRemaining()){
+			int read = channel.read(buffer, position);
+			if(read < 0){
+				throw new IOException("unexpected end of " + path);
+			}
+			position += read;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+* Runs the cells of a parameter sweep on a thread pool. Every cell is an independent task that gets only its index,
+* so it has to create all its state itself. The results are given to the consumer in the order of the indices,
+* no matter which task finishes first: a finished result waits in a reorder buffer until all results before it are given.
+* At most maxPending tasks are started but not given to the consumer, so the reorder buffer stays small.
+*
+* @author Yara Schuett
+*/
+public class SweepScheduler{
+	
+	// amount of threads running the tasks
+	private int parallelism;
+	
+	// amount of tasks that can be started before the result of the oldest one is given to the consumer
+	private int maxPending;
+	
+	// finished results that wait for the results before them, the result of index i at position i % maxPending
+	private Object[] reorderBuffer;
+	
+	private boolean[] finished;
+	
+	// index of the next result for the consumer
+	private int next;
+	
+	// free places for started tasks, a place is given back when the result of a task is given to the consumer
+	private Semaphore pending;
+	
+	private Throwable failure;
+	
+	/**
+	* Constructor for a scheduler with the given amount of threads, up to four tasks per thread can be pending.
+	*
+	* @param parallelism The amount of threads
+	*/
+	public SweepScheduler(int parallelism){
+		this(parallelism, 4 * parallelism);
+	}
+	
+	/**
+	* Constructor for a scheduler with the given amount of threads and pending tasks.
+	*
+	* @param parallelism The amount of threads
+	* @param maxPending The amount of tasks that can be started before the oldest result is given to the consumer
+	*/
+	public SweepScheduler(int parallelism, int maxPending){
+		this.parallelism = Math.max(1, parallelism);
+		this.maxPending = Math.max(this.parallelism, maxPending);
+	}
+	
+	/**
+	* Runs the tasks for all indices from 0 to numTasks and gives their results to the consumer in the order of the indices.
+	* The consumer is called by one thread at a time. If a task fails no new task is started and the failure is thrown
+	* after the running tasks are finished.
+	*
+	* @param numTasks The amount of tasks
+	* @param task Calculates the result for an index
+	* @param consumer Gets the results in the order of the indices
+	*/
+	public <T> void run(int numTasks, IntFunction<T> task, Consumer<T> consumer){
+		reorderBuffer = new Object[maxPending];
+		finished = new boolean[maxPending];
+		next = 0;
+		failure = null;
+		pending = new Semaphore(maxPending);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try{
+			for(int i = 0; i < numTasks && !hasFailed(); i++){
+				pending.acquireUninterruptibly();
+				int index = i;
+				executor.execute(new Runnable(){
+					@Override
+					public void run(){
+						try{
+							complete(index, task.apply(index), consumer);
+						}catch(Throwable e){
+							fail(e);
+						}
+					}
+				});
+			}
+		}finally{
+			executor.shutdown();
+			try{
+				while(!executor.awaitTermination(1, TimeUnit.MINUTES)){
+					// keep waiting for the running tasks
+				}
+			}catch(InterruptedException e){
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+		if(failure != null){
+			throw new RuntimeException("a task of the sweep failed", failure);
+		}
+	}
+	
+	/**
+	* Puts a finished result into the reorder buffer and gives all results that are next in order to the consumer.
+	*/
+	@SuppressWarnings("unchecked")
+	private synchronized <T> void complete(int index, T result, Consumer<T> consumer){
+		if(failure != null){
+			return;
+		}
+		reorderBuffer[index % maxPending] = result;
+		finished[index % maxPending] = true;
+		while(finished[next % maxPending]){
+			int position = next % maxPending;
+			T nextResult = (T) reorderBuffer[position];
+			reorderBuffer[position] = null;
+			finished[position] = false;
+			next++;
+			consumer.accept(nextResult);
+			pending.release();
+		}
+	}
+	
+	private synchronized void fail(Throwable e){
+		if(failure == null){
+			failure = e;
+		}
+		// the loop that starts the tasks must not wait for places that are never given back
+		pending.release(maxPending);
+	}
+	
+	private synchronized boolean hasFailed(){
+		return failure != null;
+	}
+}
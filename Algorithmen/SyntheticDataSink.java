@@ -0,0 +1,97 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Writes synthetic databases to files in the background, so the algorithms and the evaluation do not wait for the disk.
+* The databases are written one after another in the order they are given. If too many databases wait, the calling
+* thread waits until there is space again, so the waiting databases do not fill up the memory.
+* A path ending with .bin is written in the binary format of BinaryDataset, any other path as csv file.
+*
+* @author Yara Schuett
+*/
+public class SyntheticDataSink implements AutoCloseable{
+	
+	// one thread, so databases for the same path are written in the given order
+	private ThreadPoolExecutor executor;
+	
+	/**
+	* Constructor for a sink where at most capacity databases wait to be written.
+	*
+	* @param capacity The amount of databases that can wait
+	*/
+	public SyntheticDataSink(int capacity){
+		executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(capacity),
+			new RejectedExecutionHandler(){
+				@Override
+				public void rejectedExecution(Runnable task, ThreadPoolExecutor executor){
+					if(executor.isShutdown()){
+						throw new RejectedExecutionException("the sink is already closed");
+					}
+					// wait for space in the queue instead of writing in this thread, so the order stays the same
+					try{
+						executor.getQueue().put(task);
+					}catch(InterruptedException e){
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+	}
+	
+	/**
+	* Writes a database in the background. The database must not be changed afterwards.
+	*
+	* @param path The path of the file
+	* @param data The database to write
+	*/
+	public void write(String path, double[][] data){
+		executor.execute(new Runnable(){
+			@Override
+			public void run(){
+				writeNow(path, data);
+			}
+		});
+	}
+	
+	/**
+	* Waits until all given databases are written.
+	*/
+	@Override
+	public void close(){
+		executor.shutdown();
+		try{
+			while(!executor.awaitTermination(1, TimeUnit.MINUTES)){
+				// keep waiting for the last databases
+			}
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void writeNow(String path, double[][] data){
+		try{
+			if(path.endsWith(".bin")){
+				BinaryDataset.write(path, data, null);
+				return;
+			}
+			BufferedWriter bw = new BufferedWriter(new FileWriter(path));
+			for(int k = 0; k < data.length; k++){
+				for(int j = 0; j < data[k].length; j++){
+					if(j != data[k].length - 1){
+						bw.write(Double.toString(data[k][j]) + ",");
+					}else{
+						bw.write(Double.toString(data[k][j]) + "\n");
+					}
+				}
+			}
+			bw.close();
+		}catch(IOException e){
+			System.out.println("Oooops!");
+		}
+	}
+}
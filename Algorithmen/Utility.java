@@ -14,6 +14,14 @@ public abstract class Utility{
 	
 	protected double[][] synthDatabase;
 	
+	// the databases stored by columns, only set if the utility was created with matrices
+	protected DataMatrix origMatrix;
+	
+	protected DataMatrix synthMatrix;
+	
+	// the synthetic database as representatives with counts, only set if the utility was created with a weighted database
+	protected WeightedDataset synthWeighted;
+	
 	protected int numQI;
 	
 	// muss immer gesetzt werden
@@ -26,6 +34,59 @@ public abstract class Utility{
 		numQI = origDatabase[0].length;
 	}
 	
+	// zu vergleichende Datensätze als Matrizen, nach Spalten gespeichert
+	public Utility(DataMatrix origMatrix, DataMatrix synthMatrix){
+		this.origMatrix = origMatrix;
+		this.synthMatrix = synthMatrix;
+		numQI = origMatrix.getNumColumns();
+	}
+	
+	// synthetische Daten als Repräsentanten mit ihrer Anzahl
+	public Utility(double[][] origDatabase, WeightedDataset synthWeighted){
+		this.origDatabase = origDatabase;
+		this.synthWeighted = synthWeighted;
+		numQI = origDatabase[0].length;
+	}
+	
+	/**
+	* Getter for the amount of rows of the synthetic database, for all ways of storing it.
+	*
+	* @return The amount of rows of the synthetic database
+	*/
+	protected int getNumSynthRows(){
+		if(synthMatrix != null){
+			return synthMatrix.getNumRows();
+		}
+		if(synthWeighted != null){
+			return (int) synthWeighted.getNumRows();
+		}
+		return synthDatabase.length;
+	}
+	
+	/**
+	* Calculates the relative frequencies of the original and the synthetic database with one histogram.
+	* The databases stored by columns or the weighted synthetic database are used if they are set.
+	*
+	* @param histogram The histogram with the sections to count
+	* @return The relative frequencies of the original database at index 0 and of the synthetic one at index 1
+	*/
+	protected double[][][] calculateFrequencies(Histogram histogram){
+		double[][][] frequencies = new double[2][][];
+		if(origMatrix != null){
+			frequencies[0] = histogram.frequencies(origMatrix);
+		}else{
+			frequencies[0] = histogram.frequencies(origDatabase);
+		}
+		if(synthMatrix != null){
+			frequencies[1] = histogram.frequencies(synthMatrix);
+		}else if(synthWeighted != null){
+			frequencies[1] = histogram.frequencies(synthWeighted);
+		}else{
+			frequencies[1] = histogram.frequencies(synthDatabase);
+		}
+		return frequencies;
+	}
+	
 	/**
 	* Calculate utility for the given databases origDatabase and synthDatabase. 
 	*/
@@ -45,6 +45,44 @@ public class Utility2 extends Utility{
 
 	}
 	
+	/**
+	* Constructor where the given original and synthetic database stored by columns are set.
+	*
+	* @param origMatrix The original database for this method.
+	* @param synthMatrix The synthetic database for this method.
+	*/
+	public Utility2(DataMatrix origMatrix, DataMatrix synthMatrix){
+		
+		super(origMatrix, synthMatrix);
+		
+		numQI = super.numQI;
+		
+		// set the amount of sections to 100
+		numSections = 100;
+		// calculation differs with the chosen allowed queries
+		sizeQueryClass = numSections * numQI;
+	}
+	
+	/**
+	* Constructor where the given original database and the synthetic database as representatives with counts are set.
+	* Every representative is binned once, so the time depends on the amount of representatives and not of rows.
+	*
+	* @param origDatabase The original database for this method.
+	* @param synthDatabase The synthetic database for this method.
+	*/
+	public Utility2(double[][] origDatabase, WeightedDataset synthDatabase){
+		
+		super(origDatabase, synthDatabase);
+		
+		this.origDatabase = super.origDatabase;
+		numQI = super.numQI;
+		
+		// set the amount of sections to 100
+		numSections = 100;
+		// calculation differs with the chosen allowed queries
+		sizeQueryClass = numSections * numQI;
+	}
+	
 	/**
 	* Calculates the utility by calculating the average difference of the relative frequencies in each section.
 	* Dividing the range into sections, the assumption of standardized data is made.
@@ -55,7 +93,7 @@ public class Utility2 extends Utility{
 	public double utility(){
 		
 		// check if a synthetic database was created
-		if(synthDatabase.length > 1){
+		if(getNumSynthRows() > 1){
 			
 			// calculate for each section the considered range and store it as min and max value in an array
 			double[][] range = new double[numSections][2];
@@ -63,12 +101,18 @@ public class Utility2 extends Utility{
 				range[i] = calculateRangeDatabase(i);
 			}
 		
+			// bin every value of both databases once, so a query is only a lookup
+			Histogram histogram = new Histogram(range);
+			double[][][] frequencies = calculateFrequencies(histogram);
+			double[][] origFrequencies = frequencies[0];
+			double[][] synthFrequencies = frequencies[1];
+			
 			// calculate the average margin of responses to a query by the original and the synthetic database
 			// a query returns the relative frequency of elements in a considered range
 			double sum = 0;
 			for(int i = 0; i < numQI; i++){
 				for(int j = 0; j < numSections; j++){
-					double difference = Math.abs(query(origDatabase, i, j, range) - query(synthDatabase, i, j, range));
+					double difference = Math.abs(query(origFrequencies, i, j) - query(synthFrequencies, i, j));
 					sum += difference;
 				}
 			}
@@ -147,48 +191,13 @@ public class Utility2 extends Utility{
 	* Implementation of the queries we are allowing on our given database.
 	* Currently: How many elements have a value as a given attribute in a given section.
 	*
-	* @param database The considered database.
-	* @param indexQuery The index of the query out of the query class that is considered.
-	* @param range The range of the values for all dimensions
+	* @param frequencies The relative frequencies of the considered database calculated by a histogram.
+	* @param regardedQI The QI the query is demanding.
+	* @param regardedSection The section of the values the query is demanding.
 	*
 	* @return proportion Proportion of elements with attribute i in this range
 	*/
-	public double query(double[][] database, int regardedQI, int regardedSection, double[][] range){
-		
-		// store the begin and the end of the range
-		double min = range[regardedSection][0];
-		double max = range[regardedSection][1];
-		
-		// counter for the amount of elements
-		int numElements = 0;
-		
-		// check for each element in the database if it has the value in the regarded QI that is in the regarded section
-		for(int k = 0; k < database.length; k++){
-			
-			// store the current considered entry
-			double temp = database[k][regardedQI];
-			
-			// check if it is the last because then the range is [from, to]
-			// otherwise it ist [from, to)
-			if(regardedSection == numSections - 1){
-				
-				//check if the considered value is in the regarded section
-				if(temp >= min && temp <= max){
-					// increase the amount of elements
-					numElements += 1;
-				}
-			}else{
-				
-				//check if the considered value is in the regarded section
-				if(temp >=  min && temp < max){
-					// increase the amount of elements
-					numElements += 1;
-				}
-			}	
-		}
-		
-		// return proportion of elements with value in the given section
-		return (double) numElements/database.length;
+	public double query(double[][] frequencies, int regardedQI, int regardedSection){
+		return frequencies[regardedQI][regardedSection];
 	}
 }
-
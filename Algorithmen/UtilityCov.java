@@ -22,6 +22,9 @@ public class UtilityCov extends Utility{
 	
 	private double[] standardDerivation;
 	
+	// mean, standard derivation and covariance of the synthetic database calculated in one pass
+	private StatisticsAccumulator synthStatistics;
+	
 	/**
 	* Constructor where the given original and synthetic database are set. Also the amount of QIs is calculated
 	* and the arrays for the mean and the standard derivatiion are initialized
@@ -40,6 +43,61 @@ public class UtilityCov extends Utility{
 		standardDerivation = new double[numQI];
 	}
 	
+	/**
+	* Constructor where the given original and synthetic database stored by columns are set.
+	*
+	* @param origMatrix The original database for this method.
+	* @param synthMatrix The synthetic database for this method.
+	*/
+	public UtilityCov(DataMatrix origMatrix, DataMatrix synthMatrix){
+		
+		super(origMatrix, synthMatrix);
+		
+		numQI = super.numQI;
+		attributeMean = new double[numQI];
+		standardDerivation = new double[numQI];
+	}
+	
+	/**
+	* Constructor where the given original database and the synthetic database as representatives with counts are set.
+	* Every representative is added once with its count to the statistics of the synthetic database.
+	*
+	* @param origDatabase The original database for this method.
+	* @param synthDatabase The synthetic database for this method.
+	*/
+	public UtilityCov(double[][] origDatabase, WeightedDataset synthDatabase){
+		
+		super(origDatabase, synthDatabase);
+		
+		this.origDatabase = super.origDatabase;
+		numQI = super.numQI;
+		attributeMean = new double[numQI];
+		standardDerivation = new double[numQI];
+	}
+	
+	/**
+	* Constructor where the original database stored by columns and the statistics of the synthetic database are set.
+	*
+	* @param origMatrix The original database for this method.
+	* @param synthStatistics The accumulated statistics of the synthetic database.
+	*/
+	public UtilityCov(DataMatrix origMatrix, StatisticsAccumulator synthStatistics){
+		this(origMatrix, (DataMatrix) null);
+		this.synthStatistics = synthStatistics;
+	}
+	
+	/**
+	* Constructor where the original database and the statistics of the synthetic database are set. 
+	* The synthetic database itself is not needed, so its rows can be added to the accumulator while they are generated.
+	*
+	* @param origDatabase The original database for this method.
+	* @param synthStatistics The accumulated statistics of the synthetic database.
+	*/
+	public UtilityCov(double[][] origDatabase, StatisticsAccumulator synthStatistics){
+		this(origDatabase, (double[][]) null);
+		this.synthStatistics = synthStatistics;
+	}
+	
 	/**
 	* Calculates the utility by calculating and comparing the covariance matrices of two datasets
 	* Therefor it compares the original database and the generated synthetic database.
@@ -48,8 +106,20 @@ public class UtilityCov extends Utility{
 	*/
 	public double utility(){
 		
+	// calculate mean, standard derivation and covariance of the synthetic database in one pass
+	if(synthStatistics == null){
+		synthStatistics = new StatisticsAccumulator(numQI);
+		if(synthMatrix != null){
+			synthStatistics.add(synthMatrix);
+		}else if(synthWeighted != null){
+			synthStatistics.add(synthWeighted);
+		}else{
+			synthStatistics.add(synthDatabase);
+		}
+	}
+	
 	// check if a synthetic database was created
-	if(synthDatabase.length > 1){
+	if(synthStatistics.getCount() > 1){
 		
 		// original database is standardized and we don't have to calculate the mean and the standard derivation
 		for(int i = 0; i < numQI; i++){
@@ -58,16 +128,16 @@ public class UtilityCov extends Utility{
 		}
 		
 		// calculate covariance matrix of the original database
-		Covariance origCov = new Covariance(origDatabase, attributeMean, standardDerivation);
+		Covariance origCov;
+		if(origMatrix != null){
+			origCov = new Covariance(origMatrix, attributeMean, standardDerivation);
+		}else{
+			origCov = new Covariance(origDatabase, attributeMean, standardDerivation);
+		}
 		double[][] origCovMatrix = origCov.calculateCovMatrix();
 		
-		// calculate mean and standard derivation of the dimensions for the synthetic database
-		double[] synthAttributeMean = calcAttributeMean(synthDatabase);
-		double[] synthStandardDerivation = calcStandardDerivation(synthDatabase, synthAttributeMean);
-		
-		// calculate covariance matrix of the synthetic database
-		Covariance synthCov = new Covariance(synthDatabase, synthAttributeMean, synthStandardDerivation);
-		double[][] synthCovMatrix = synthCov.calculateCovMatrix();
+		// covariance matrix of the synthetic database
+		double[][] synthCovMatrix = synthStatistics.getCovMatrix();
 		
 		// calculate the average difference of the covariance matrices
 		double sum = 0;
@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+* Compact form of a dataset where equal rows are stored only once. For every different row
+* there is one representative and the amount of rows it stands for.
+*
+* @author Yara Schuett
+*/
+public class WeightedDataset{
+
+	private double[][] representatives;
+
+	private int[] counts;
+
+	/**
+	* Constructor where the representatives and their counts are set.
+	*
+	* @param representatives The different rows of the dataset
+	* @param counts For every representative the amount of rows it stands for
+	*/
+	public WeightedDataset(double[][] representatives, int[] counts){
+		this.representatives = representatives;
+		this.counts = counts;
+	}
+
+	/**
+	* Creates a weighted dataset where every row is its own representative with count 1.
+	*
+	* @param rows The rows of the dataset
+	* @return The weighted dataset of the rows
+	*/
+	public static WeightedDataset fromRows(double[][] rows){
+		int[] counts = new int[rows.length];
+		Arrays.fill(counts, 1);
+		return new WeightedDataset(rows, counts);
+	}
+
+	/**
+	* Getter for the representatives
+	*
+	* @return The different rows of the dataset
+	*/
+	public double[][] getRepresentatives(){
+		return representatives;
+	}
+
+	/**
+	* Getter for the counts of the representatives
+	*
+	* @return For every representative the amount of rows it stands for
+	*/
+	public int[] getCounts(){
+		return counts;
+	}
+
+	/**
+	* Getter for the amount of representatives
+	*
+	* @return The amount of different rows
+	*/
+	public int getNumRepresentatives(){
+		return representatives.length;
+	}
+
+	/**
+	* Calculates the amount of rows of the whole dataset
+	*
+	* @return The sum of all counts
+	*/
+	public long getNumRows(){
+		long numRows = 0;
+		for(int i = 0; i < counts.length; i++){
+			numRows += counts[i];
+		}
+		return numRows;
+	}
+
+	/**
+	* Expands the dataset into its rows, every representative is repeated as often as its count.
+	* The rows of one representative share the same array.
+	*
+	* @return The rows of the dataset
+	*/
+	public double[][] toArray(){
+		double[][] rows = new double[(int) getNumRows()][];
+		int row = 0;
+		for(int i = 0; i < representatives.length; i++){
+			for(int j = 0; j < counts[i]; j++){
+				rows[row] = representatives[i];
+				row++;
+			}
+		}
+		return rows;
+	}
+}
\ No newline at end of file
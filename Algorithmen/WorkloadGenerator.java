@@ -0,0 +1,387 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* Generates standardized multivariate data to test the algorithms with more rows than the real datasets have.
+* Every attribute is standard normal distributed, the attributes can be correlated with the same correlation
+* between all attributes or with a given correlation matrix, which is split with the Cholesky decomposition.
+* A given ratio of the rows are copies of earlier rows, so there are clusters of equal elements like in real data.
+*
+* Every row is drawn from its own random stream that only depends on the seed and the index of the row.
+* So a row can be created again at any time: a copy is created from the index of its original without storing any rows,
+* the rows can be created in parallel and written in blocks, and the same seed always gives the same data.
+* Up to 10^8 rows can be written to a binary file without storing them in memory.
+*
+* @author Yara Schuett
+*/
+public class WorkloadGenerator{
+	
+	// rows that are created and written together when writing a file
+	private static final int BLOCK_SIZE = 1 << 16;
+	
+	// blocks with less rows are not split in parallel anymore
+	private static final int PARALLEL_THRESHOLD = 4096;
+	
+	private long numRows;
+	
+	private int numQI;
+	
+	private long seed = 42;
+	
+	// probability that a row is a copy of an earlier row
+	private double duplicateRatio;
+	
+	// correlation between all attributes, only used if there is no cholesky factor
+	private double equicorrelation;
+	
+	// lower triangle of the cholesky decomposition of the correlation matrix, null if all attributes have the same correlation
+	private double[][] cholesky;
+	
+	// amount of threads creating the rows
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	* Constructor for uncorrelated data without copies.
+	*
+	* @param numRows The amount of rows
+	* @param numQI The amount of attributes
+	*/
+	public WorkloadGenerator(long numRows, int numQI){
+		if(numRows < 0 || numQI <= 0){
+			throw new IllegalArgumentException("the amount of rows must not be negative and there must be at least one attribute");
+		}
+		this.numRows = numRows;
+		this.numQI = numQI;
+	}
+	
+	/**
+	* Setter for the seed, the same seed and parameters give the same data
+	*
+	* @param seed The seed of the random streams
+	*/
+	public void setSeed(long seed){
+		this.seed = seed;
+	}
+	
+	/**
+	* Setter for the ratio of rows that are copies of an earlier row. Every row except the first one is a copy
+	* with this probability, its original is drawn uniformly from all rows before it.
+	*
+	* @param duplicateRatio The probability that a row is a copy, in [0, 1)
+	*/
+	public void setDuplicateRatio(double duplicateRatio){
+		if(!(duplicateRatio >= 0 && duplicateRatio < 1)){
+			throw new IllegalArgumentException("the duplicate ratio must be in [0, 1)");
+		}
+		this.duplicateRatio = duplicateRatio;
+	}
+	
+	/**
+	* Sets the same correlation between every two attributes. A negative correlation needs the cholesky decomposition,
+	* a positive one is created with one shared value for all attributes of a row.
+	*
+	* @param correlation The correlation, bigger than -1/(numQI-1) and smaller than 1
+	*/
+	public void setEquicorrelation(double correlation){
+		if(correlation >= 0){
+			if(correlation >= 1){
+				throw new IllegalArgumentException("the correlation must be smaller than 1");
+			}
+			this.equicorrelation = correlation;
+			this.cholesky = null;
+			return;
+		}
+		double[][] matrix = new double[numQI][numQI];
+		for(int i = 0; i < numQI; i++){
+			for(int j = 0; j < numQI; j++){
+				matrix[i][j] = i == j ? 1 : correlation;
+			}
+		}
+		setCorrelation(matrix);
+	}
+	
+	/**
+	* Sets the correlation matrix of the attributes. It is split into L * L^T, every row is L times independent standard
+	* normal values, so every attribute stays standard normal distributed.
+	*
+	* @param correlation The symmetric positive definite correlation matrix with 1 on the diagonal
+	*/
+	public void setCorrelation(double[][] correlation){
+		if(correlation.length != numQI){
+			throw new IllegalArgumentException("the correlation matrix must have numQI rows and columns");
+		}
+		double[][] factor = new double[numQI][numQI];
+		for(int i = 0; i < numQI; i++){
+			if(correlation[i].length != numQI || Math.abs(correlation[i][i] - 1) > 1e-12){
+				throw new IllegalArgumentException("the correlation matrix must have numQI columns and 1 on the diagonal");
+			}
+			for(int j = 0; j <= i; j++){
+				if(Math.abs(correlation[i][j] - correlation[j][i]) > 1e-12){
+					throw new IllegalArgumentException("the correlation matrix must be symmetric");
+				}
+				double sum = correlation[i][j];
+				for(int k = 0; k < j; k++){
+					sum -= factor[i][k] * factor[j][k];
+				}
+				if(i == j){
+					if(sum <= 0){
+						throw new IllegalArgumentException("the correlation matrix must be positive definite");
+					}
+					factor[i][i] = Math.sqrt(sum);
+				}else{
+					factor[i][j] = sum / factor[j][j];
+				}
+			}
+		}
+		this.cholesky = factor;
+		this.equicorrelation = 0;
+	}
+	
+	/**
+	* Setter for the amount of threads creating the rows
+	*
+	* @param parallelism The amount of threads
+	*/
+	public void setParallelism(int parallelism){
+		this.parallelism = Math.max(1, parallelism);
+	}
+	
+	/**
+	* Creates all rows in memory, stored by columns.
+	*
+	* @return The generated data
+	*/
+	public DataMatrix generate(){
+		if(numRows > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("more than " + Integer.MAX_VALUE + " rows can only be written to a file");
+		}
+		DataMatrix data = new DataMatrix((int) numRows, numQI);
+		ForkJoinPool pool = createPool();
+		try{
+			fill(pool, data, 0, (int) numRows);
+		}finally{
+			shutdownPool(pool);
+		}
+		return data;
+	}
+	
+	/**
+	* Writes all rows to a file in the binary format of BinaryDataset. The rows are created block by block,
+	* so only one block is in memory.
+	*
+	* @param path The path of the file
+	* @throws IOException If the file can not be written
+	*/
+	public void write(String path) throws IOException{
+		ForkJoinPool pool = createPool();
+		try(FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			ByteBuffer header = BinaryDataset.createHeader(numRows, numQI, null);
+			long dataStart = header.capacity();
+			writeFully(channel, header, 0);
+			
+			int blockSize = (int) Math.min(BLOCK_SIZE, Math.max(1, numRows));
+			DataMatrix block = new DataMatrix(blockSize, numQI);
+			ByteBuffer buffer = ByteBuffer.allocateDirect(blockSize * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			for(long from = 0; from < numRows; from += blockSize){
+				int amount = (int) Math.min(blockSize, numRows - from);
+				fill(pool, block, from, amount);
+				
+				// every column of the block at its place in its column of the file
+				for(int j = 0; j < numQI; j++){
+					buffer.clear();
+					buffer.asDoubleBuffer().put(block.getColumn(j), 0, amount);
+					buffer.limit(amount * Double.BYTES);
+					writeFully(channel, buffer, dataStart + (j * numRows + from) * Double.BYTES);
+				}
+			}
+		}finally{
+			shutdownPool(pool);
+		}
+	}
+	
+	/**
+	* Creates one row, the same index always gives the same row.
+	*
+	* @param index The index of the row
+	* @param target Array for the values of the row, with numQI values
+	* @return The array with the values of the row
+	*/
+	public double[] row(long index, double[] target){
+		
+		// a copy is created like its original, the original is found by following the copies back
+		long original = index;
+		SplittableRandom rdm = stream(original);
+		while(original > 0 && rdm.nextDouble() < duplicateRatio){
+			original = rdm.nextLong(original);
+			rdm = stream(original);
+		}
+		
+		if(cholesky != null){
+			// L times independent standard normal values, the lower triangle is multiplied from the last row up
+			for(int i = 0; i < numQI; i++){
+				target[i] = gaussian(rdm);
+			}
+			for(int i = numQI - 1; i >= 0; i--){
+				double value = 0;
+				for(int k = 0; k <= i; k++){
+					value += cholesky[i][k] * target[k];
+				}
+				target[i] = value;
+			}
+		}else if(equicorrelation > 0){
+			// one shared value for all attributes gives the same correlation between all of them
+			double shared = Math.sqrt(equicorrelation) * gaussian(rdm);
+			double own = Math.sqrt(1 - equicorrelation);
+			for(int i = 0; i < numQI; i++){
+				target[i] = shared + own * gaussian(rdm);
+			}
+		}else{
+			for(int i = 0; i < numQI; i++){
+				target[i] = gaussian(rdm);
+			}
+		}
+		return target;
+	}
+	
+	/**
+	* Creates the pool for the set amount of threads, null for one thread.
+	* The common pool is used if it has the same amount of threads, so no new threads are started.
+	*/
+	private ForkJoinPool createPool(){
+		if(parallelism <= 1){
+			return null;
+		}
+		if(parallelism == ForkJoinPool.getCommonPoolParallelism()){
+			return ForkJoinPool.commonPool();
+		}
+		return new ForkJoinPool(parallelism);
+	}
+	
+	/**
+	* Shuts down a pool of createPool, the common pool is kept.
+	*/
+	private void shutdownPool(ForkJoinPool pool){
+		if(pool != null && pool != ForkJoinPool.commonPool()){
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	* Fills the first rows of a matrix with the rows from a given index on, in parallel if there is a pool.
+	*/
+	private void fill(ForkJoinPool pool, DataMatrix data, long from, int amount){
+		FillTask task = new FillTask(data, from, 0, amount);
+		if(pool == null || amount < PARALLEL_THRESHOLD){
+			task.compute();
+			return;
+		}
+		pool.invoke(task);
+	}
+	
+	/**
+	* Task that creates the rows from one position of a matrix to another.
+	*/
+	private class FillTask extends RecursiveAction{
+		
+		private static final long serialVersionUID = 1L;
+		
+		private DataMatrix data;
+		
+		// index of the row at position 0 of the matrix
+		private long offset;
+		
+		private int from;
+		
+		private int to;
+		
+		public FillTask(DataMatrix data, long offset, int from, int to){
+			this.data = data;
+			this.offset = offset;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute(){
+			if(to - from > PARALLEL_THRESHOLD && getPool() != null){
+				int middle = (from + to) >>> 1;
+				invokeAll(new FillTask(data, offset, from, middle), new FillTask(data, offset, middle, to));
+				return;
+			}
+			double[] values = new double[numQI];
+			for(int r = from; r < to; r++){
+				row(offset + r, values);
+				for(int j = 0; j < numQI; j++){
+					data.getColumn(j)[r] = values[j];
+				}
+			}
+		}
+	}
+	
+	/**
+	* The random stream of a row, the seed is mixed with the index so the streams of neighbouring rows are independent.
+	*/
+	private SplittableRandom stream(long index){
+		long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return new SplittableRandom(z ^ (z >>> 33));
+	}
+	
+	/**
+	* Draws a standard normal distributed value with the polar method.
+	*/
+	private static double gaussian(SplittableRandom rdm){
+		double u;
+		double v;
+		double s;
+		do{
+			u = 2 * rdm.nextDouble() - 1;
+			v = 2 * rdm.nextDouble() - 1;
+			s = u * u + v * v;
+		}while(s >= 1 || s == 0);
+		return u * Math.sqrt(-2 * Math.log(s) / s);
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		while(buffer.hasRemaining()){
+			position += channel.write(buffer, position);
+		}
+	}
+	
+	/**
+	* Writes a generated dataset to a binary file.
+	* Arguments: path rows numQI [correlation] [duplicateRatio] [seed]
+	*
+	* @param args The arguments
+	*/
+	public static void main(String[] args){
+		if(args.length < 3){
+			System.out.println("usage: WorkloadGenerator path rows numQI [correlation] [duplicateRatio] [seed]");
+			return;
+		}
+		WorkloadGenerator generator = new WorkloadGenerator(Long.parseLong(args[1]), Integer.parseInt(args[2]));
+		if(args.length > 3){
+			generator.setEquicorrelation(Double.parseDouble(args[3]));
+		}
+		if(args.length > 4){
+			generator.setDuplicateRatio(Double.parseDouble(args[4]));
+		}
+		if(args.length > 5){
+			generator.setSeed(Long.parseLong(args[5]));
+		}
+		try{
+			generator.write(args[0]);
+		}catch(IOException e){
+			System.out.println("Oooops!");
+		}
+	}
+}
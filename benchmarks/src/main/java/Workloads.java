@@ -0,0 +1,225 @@
+import benchmarks.Workload;
+
+/**
+* The workloads of the benchmarks. They are in the default package like the algorithms, every nested class
+* is one measured call. The data is standardized and drawn with a fixed seed, so every run measures the same data.
+*
+* @author Yara Schuett
+*/
+public class Workloads{
+	
+	private static final long SEED = 42;
+	
+	private Workloads(){
+	}
+	
+	/**
+	* Standard normal distributed data like the standardized datasets, created by WorkloadGenerator.
+	* The correlation and the ratio of copied rows can be set with the system properties
+	* workload.correlation and workload.duplicateRatio, by default the attributes are independent without copies.
+	*
+	* @param rows The amount of rows
+	* @param numQI The amount of QIs
+	* @param seed The seed of the random values
+	* @return The data stored by rows
+	*/
+	static double[][] standardizedData(int rows, int numQI, long seed){
+		WorkloadGenerator generator = new WorkloadGenerator(rows, numQI);
+		generator.setSeed(seed);
+		generator.setEquicorrelation(Double.parseDouble(System.getProperty("workload.correlation", "0")));
+		generator.setDuplicateRatio(Double.parseDouble(System.getProperty("workload.duplicateRatio", "0")));
+		return generator.generate().toRows();
+	}
+	
+	/**
+	* Mondrian.mondrian on data stored by columns.
+	*/
+	public static class MondrianWorkload implements Workload{
+		
+		private DataMatrix data;
+		
+		private int numQI;
+		
+		private int k;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			this.data = DataMatrix.fromRows(standardizedData(rows, numQI, SEED));
+			this.numQI = numQI;
+			this.k = k;
+		}
+		
+		@Override
+		public Object run(){
+			Mondrian mondrian = new Mondrian(numQI, k);
+			mondrian.mondrian(data);
+			return mondrian;
+		}
+	}
+	
+	/**
+	* SDGS.algorithmSDGS, the variant with Mondrian, with beta 0.5 like Evaluate gets it.
+	*/
+	public static class SDGSWorkload implements Workload{
+		
+		private double[][] data;
+		
+		private int numQI;
+		
+		private int k;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			this.data = standardizedData(rows, numQI, SEED);
+			this.numQI = numQI;
+			this.k = k;
+		}
+		
+		@Override
+		public Object run(){
+			SDGS sdgs = new SDGS(0.5, k, numQI);
+			sdgs.setPath(null);
+			return sdgs.algorithmSDGS(data);
+		}
+	}
+	
+	/**
+	* SDGS.algorithmSDGSIndependent with beta 0.5, the generalization always has 16 sections, so only k is a parameter.
+	*/
+	public static class SDGSIndependentWorkload implements Workload{
+		
+		private double[][] data;
+		
+		private int numQI;
+		
+		private int k;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			this.data = standardizedData(rows, numQI, SEED);
+			this.numQI = numQI;
+			this.k = k;
+		}
+		
+		@Override
+		public Object run(){
+			SDGS sdgs = new SDGS(0.5, k, numQI);
+			sdgs.setPath(null);
+			return sdgs.algorithmSDGSIndependent(data);
+		}
+	}
+	
+	/**
+	* SmallDB.smallDB with numSections sections for the queries. The clusters are built in every call,
+	* so the whole run is measured and not only the first one of a dataset.
+	*/
+	public static class SmallDBWorkload implements Workload{
+		
+		private double[][] data;
+		
+		private int numQI;
+		
+		private int numSections;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			this.data = standardizedData(rows, numQI, SEED);
+			this.numQI = numQI;
+			this.numSections = numSections;
+		}
+		
+		@Override
+		public Object run(){
+			SmallDB smallDB = new SmallDB(0.1, 0.01, numSections, 4, -1, 50, numQI);
+			smallDB.setSeed(SEED);
+			smallDB.setParallelism(1);
+			smallDB.setPath(null);
+			smallDB.setClusterCache(null);
+			return smallDB.smallDB(data);
+		}
+	}
+	
+	/**
+	* IndependentAnonym.anonymize with numSections sections on [-5,5).
+	*/
+	public static class IndependentAnonymWorkload implements Workload{
+		
+		private DataMatrix data;
+		
+		private int numSections;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			this.data = DataMatrix.fromRows(standardizedData(rows, numQI, SEED));
+			this.numSections = numSections;
+		}
+		
+		@Override
+		public Object run(){
+			return new IndependentAnonym(data, numSections, -5, 5).anonymize();
+		}
+	}
+	
+	/**
+	* Utility1.utility with its 8 sections, the synthetic database is other standardized data of the same size.
+	*/
+	public static class Utility1Workload implements Workload{
+		
+		private double[][] origDatabase;
+		
+		private double[][] synthDatabase;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			origDatabase = standardizedData(rows, numQI, SEED);
+			synthDatabase = standardizedData(rows, numQI, SEED + 1);
+		}
+		
+		@Override
+		public Object run(){
+			return new Utility1(origDatabase, synthDatabase).utility();
+		}
+	}
+	
+	/**
+	* Utility2.utility with its 100 sections, the synthetic database is other standardized data of the same size.
+	*/
+	public static class Utility2Workload implements Workload{
+		
+		private double[][] origDatabase;
+		
+		private double[][] synthDatabase;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			origDatabase = standardizedData(rows, numQI, SEED);
+			synthDatabase = standardizedData(rows, numQI, SEED + 1);
+		}
+		
+		@Override
+		public Object run(){
+			return new Utility2(origDatabase, synthDatabase).utility();
+		}
+	}
+	
+	/**
+	* UtilityCov.utility, the synthetic database is other standardized data of the same size.
+	*/
+	public static class UtilityCovWorkload implements Workload{
+		
+		private double[][] origDatabase;
+		
+		private double[][] synthDatabase;
+		
+		@Override
+		public void setUp(int rows, int numQI, int k, int numSections){
+			origDatabase = standardizedData(rows, numQI, SEED);
+			synthDatabase = standardizedData(rows, numQI, SEED + 1);
+		}
+		
+		@Override
+		public Object run(){
+			return new UtilityCov(origDatabase, synthDatabase).utility();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+* Runs the benchmarks with the options of the JMH command line and always adds the GC profiler,
+* so every result also shows the allocation rate, the allocated bytes per call and the GC time.
+*
+* @author Yara Schuett
+*/
+public class BenchmarkMain{
+	
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException{
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if(commandLine.shouldHelp()){
+			commandLine.showHelp();
+			return;
+		}
+		if(commandLine.shouldList()){
+			new Runner(commandLine).list();
+			return;
+		}
+		new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+	}
+}
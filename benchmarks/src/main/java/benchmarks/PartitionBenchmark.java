@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Measures one call of the algorithms that partition the data into groups of at least k elements.
+* Every combination of the parameters is measured, single values can be chosen on the command line,
+* e.g. PartitionBenchmark -p workload=Mondrian -p rows=1000000.
+*
+* @author Yara Schuett
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionBenchmark{
+	
+	// the nested class workload + "Workload" of Workloads in the default package
+	@Param({"Mondrian", "SDGS", "SDGSIndependent"})
+	public String workload;
+	
+	@Param({"10000", "100000"})
+	public int rows;
+	
+	@Param({"3", "10"})
+	public int numQI;
+		
+	@Param({"5", "50"})
+	public int k;
+	
+	private Workload target;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws ReflectiveOperationException{
+		target = (Workload) Class.forName("Workloads$" + workload + "Workload").getDeclaredConstructor().newInstance();
+		target.setUp(rows, numQI, k, 0);
+	}
+	
+	@Benchmark
+	public Object run(){
+		return target.run();
+	}
+}
@@ -0,0 +1,28 @@
+package benchmarks;
+
+/**
+* One measured call of an algorithm. The algorithms are in the default package, which can not be used from a
+* named package like the one JMH needs for the benchmarks. So every workload is implemented in the default package
+* and used by the benchmarks only through this interface.
+*
+* @author Yara Schuett
+*/
+public interface Workload{
+	
+	/**
+	* Creates the data and the objects that are needed for the measured call, it is not measured itself.
+	*
+	* @param rows The amount of rows of the original data
+	* @param numQI The amount of QIs of the original data
+	* @param k The parameter k of Mondrian and SDGS, 0 for the workloads that do not use it
+	* @param numSections The amount of sections of the generalization, 0 for the workloads that do not use it
+	*/
+	void setUp(int rows, int numQI, int k, int numSections);
+	
+	/**
+	* Runs the measured call once.
+	*
+	* @return The result of the call, so the call is not removed as dead code
+	*/
+	Object run();
+}
@@ -0,0 +1,127 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+* Writes datasets into binary files and checks that reading them gives the same values and names,
+* and that broken files are not read.
+*
+* @author Yara Schuett
+*/
+public class BinaryDatasetTest{
+	
+	@TempDir
+	Path directory;
+	
+	private static double[][] data(Random random, int numRows, int numQI){
+		double[][] rows = new double[numRows][numQI];
+		for(double[] row : rows){
+			for(int j = 0; j < numQI; j++){
+				row[j] = random.nextGaussian();
+			}
+		}
+		return rows;
+	}
+	
+	@Test
+	public void sameValuesAfterReading() throws IOException{
+		Random random = new Random(15);
+		
+		// the buffer holds 131072 values, so some columns are read in more than one block
+		for(int numRows : new int[]{1, 3, 131072, 131073, 300000}){
+			double[][] rows = data(random, numRows, 3);
+			rows[0][0] = -0.0;
+			rows[0][1] = Double.NaN;
+			rows[0][2] = Double.MAX_VALUE;
+			String path = directory.resolve("rows" + numRows + ".bin").toString();
+			String[] names = {"Alter", "Größe", ""};
+			BinaryDataset.write(path, rows, names);
+			
+			BinaryDataset dataset = new BinaryDataset(path);
+			assertEquals(numRows, dataset.getNumRows());
+			assertEquals(3, dataset.getNumColumns());
+			assertArrayEquals(names, dataset.getColumnNames());
+			assertArrayEquals(rows, dataset.getDataDouble());
+		}
+	}
+	
+	@Test
+	public void sameColumnsAfterReading() throws IOException{
+		DataMatrix data = DataMatrix.fromRows(data(new Random(16), 1000, 4));
+		String path = directory.resolve("columns.bin").toString();
+		BinaryDataset.write(path, data, null);
+		
+		BinaryDataset dataset = new BinaryDataset(path);
+		assertArrayEquals(new String[]{"QI0", "QI1", "QI2", "QI3"}, dataset.getColumnNames());
+		for(int j = 0; j < 4; j++){
+			assertArrayEquals(data.getColumn(j), dataset.getData().getColumn(j));
+		}
+	}
+	
+	@Test
+	public void emptyDataset() throws IOException{
+		String path = directory.resolve("empty.bin").toString();
+		BinaryDataset.write(path, new DataMatrix(new double[2][0], 0), new String[]{"a", "b"});
+		
+		BinaryDataset dataset = new BinaryDataset(path);
+		assertEquals(0, dataset.getNumRows());
+		assertEquals(2, dataset.getNumColumns());
+	}
+	
+	@Test
+	public void convertCsvWithAndWithoutNames() throws IOException{
+		Path withNames = directory.resolve("names.csv");
+		Files.write(withNames, "a;b\n1.5;-2\n\n3;4e2\n".getBytes("UTF-8"));
+		Path withoutNames = directory.resolve("values.csv");
+		Files.write(withoutNames, "1.5,-2\n3,400\n".getBytes("UTF-8"));
+		
+		String path = directory.resolve("names.bin").toString();
+		BinaryDataset.convert(withNames.toString(), path);
+		BinaryDataset dataset = new BinaryDataset(path);
+		assertArrayEquals(new String[]{"a", "b"}, dataset.getColumnNames());
+		assertArrayEquals(new double[][]{{1.5, -2}, {3, 400}}, dataset.getDataDouble());
+		
+		BinaryDataset csv = BinaryDataset.readCsv(withoutNames.toString());
+		assertNull(csv.getColumnNames());
+		assertArrayEquals(new double[][]{{1.5, -2}, {3, 400}}, csv.getDataDouble());
+		
+		Path broken = directory.resolve("broken.csv");
+		Files.write(broken, "1,2\n3\n".getBytes("UTF-8"));
+		assertThrows(IOException.class, () -> BinaryDataset.readCsv(broken.toString()));
+	}
+	
+	@Test
+	public void brokenFilesAreNotRead() throws IOException{
+		String path = directory.resolve("broken.bin").toString();
+		BinaryDataset.write(path, data(new Random(17), 100, 2), null);
+		long length = Files.size(Path.of(path));
+		
+		// the last values are missing
+		try(RandomAccessFile file = new RandomAccessFile(path, "rw")){
+			file.setLength(length - 8);
+		}
+		assertThrows(IOException.class, () -> new BinaryDataset(path));
+		
+		// far more rows and columns than the file has
+		try(RandomAccessFile file = new RandomAccessFile(path, "rw")){
+			file.seek(8);
+			file.writeLong(Long.reverseBytes(Integer.MAX_VALUE));
+			file.writeInt(Integer.reverseBytes(Integer.MAX_VALUE));
+		}
+		assertThrows(IOException.class, () -> new BinaryDataset(path));
+		
+		Path text = directory.resolve("text.bin");
+		Files.write(text, "1,2,3\n4,5,6\n7,8,9\n10,11,12\n".getBytes("UTF-8"));
+		assertThrows(IOException.class, () -> new BinaryDataset(text.toString()));
+	}
+}
@@ -0,0 +1,96 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* Compares the cells of CellTable with grouping the tuples in a HashMap, for packed keys and for hashed keys
+* when the combinations of sections do not fit into a long.
+*
+* @author Yara Schuett
+*/
+public class CellTableTest{
+	
+	private static void checkCells(int numQI, int radix, int numTuples, int distinct, long seed){
+		Random random = new Random(seed);
+		
+		// few different tuples, so most tuples fall into an existing cell
+		int[][] pool = new int[distinct][numQI];
+		for(int[] tuple : pool){
+			for(int j = 0; j < numQI; j++){
+				tuple[j] = random.nextInt(radix);
+			}
+		}
+		int[] sections = new int[numTuples * numQI];
+		int[] amounts = new int[numTuples];
+		for(int t = 0; t < numTuples; t++){
+			System.arraycopy(pool[random.nextInt(distinct)], 0, sections, t * numQI, numQI);
+			amounts[t] = 1 + random.nextInt(3);
+		}
+		
+		CellTable cells = new CellTable(numQI, radix);
+		HashMap<List<Integer>, Integer> expectedCell = new HashMap<List<Integer>, Integer>();
+		ArrayList<List<Integer>> expectedSections = new ArrayList<List<Integer>>();
+		ArrayList<Integer> expectedCounts = new ArrayList<Integer>();
+		for(int t = 0; t < numTuples; t++){
+			List<Integer> tuple = new ArrayList<Integer>();
+			for(int j = 0; j < numQI; j++){
+				tuple.add(sections[t * numQI + j]);
+			}
+			
+			// the cells are numbered in the order of their first tuple
+			Integer cell = expectedCell.get(tuple);
+			if(cell == null){
+				cell = expectedSections.size();
+				expectedCell.put(tuple, cell);
+				expectedSections.add(tuple);
+				expectedCounts.add(0);
+			}
+			expectedCounts.set(cell, expectedCounts.get(cell) + amounts[t]);
+			assertEquals(cell.intValue(), cells.add(sections, t * numQI, amounts[t]));
+		}
+		
+		assertEquals(expectedSections.size(), cells.getNumCells());
+		for(int cell = 0; cell < cells.getNumCells(); cell++){
+			assertEquals(expectedCounts.get(cell).intValue(), cells.getCount(cell));
+			for(int j = 0; j < numQI; j++){
+				assertEquals(expectedSections.get(cell).get(j).intValue(), cells.getSection(cell, j));
+			}
+		}
+	}
+	
+	@Test
+	public void packedKeys(){
+		checkCells(3, 16, 20000, 500, 4);
+		checkCells(13, 16, 20000, 3000, 5);
+	}
+	
+	@Test
+	public void hashedKeys(){
+		// 16^20 combinations do not fit into a long
+		checkCells(20, 16, 20000, 3000, 6);
+		checkCells(40, 100, 5000, 4000, 7);
+	}
+	
+	@Test
+	public void tuplesThatDifferInOneSection(){
+		int numQI = 30;
+		CellTable cells = new CellTable(numQI, 16);
+		int[] tuple = new int[numQI];
+		for(int j = 0; j < numQI; j++){
+			Arrays.fill(tuple, 0);
+			for(int value = 0; value < 16; value++){
+				tuple[j] = value;
+				cells.add(tuple, 0);
+			}
+		}
+		// the tuple with only zeros is added once for every QI, all others once
+		assertEquals(numQI * 15 + 1, cells.getNumCells());
+		assertEquals(numQI, cells.getCount(0));
+	}
+}
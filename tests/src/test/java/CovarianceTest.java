@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* Compares the blocked covariance matrix with the former calculation, which summed up every combination
+* of dimensions in its own pass over all rows.
+*
+* @author Yara Schuett
+*/
+public class CovarianceTest{
+	
+	private static double[][] everyCombination(double[][] matrix, double[] attributeMean){
+		int numQI = matrix[0].length;
+		double[][] covMatrix = new double[numQI][numQI];
+		for(int i = 0; i < numQI; i++){
+			for(int j = 0; j < numQI; j++){
+				double sum = 0;
+				for(int k = 0; k < matrix.length; k++){
+					sum += (matrix[k][i] - attributeMean[i]) * (matrix[k][j] - attributeMean[j]);
+				}
+				covMatrix[i][j] = sum/(matrix.length-1);
+			}
+		}
+		return covMatrix;
+	}
+	
+	private static double[][] data(Random random, int numRows, int numQI){
+		double[][] rows = new double[numRows][numQI];
+		for(double[] row : rows){
+			double shared = random.nextGaussian();
+			for(int j = 0; j < numQI; j++){
+				row[j] = 3 + shared * j + random.nextGaussian();
+			}
+		}
+		return rows;
+	}
+	
+	private static double[] mean(double[][] rows){
+		double[] mean = new double[rows[0].length];
+		for(double[] row : rows){
+			for(int j = 0; j < mean.length; j++){
+				mean[j] += row[j];
+			}
+		}
+		for(int j = 0; j < mean.length; j++){
+			mean[j] /= rows.length;
+		}
+		return mean;
+	}
+	
+	private static void assertMatrixEquals(double[][] expected, double[][] actual, String message){
+		assertEquals(expected.length, actual.length, message);
+		for(int i = 0; i < expected.length; i++){
+			for(int j = 0; j < expected.length; j++){
+				assertEquals(expected[i][j], actual[i][j], 1e-12 * (1 + Math.abs(expected[i][j])), message + " at " + i + "," + j);
+			}
+		}
+	}
+	
+	@Test
+	public void sameMatrixAsEveryCombination(){
+		Random random = new Random(10);
+		for(int numRows : new int[]{2, 255, 256, 257, 1000, 4095, 4096, 4097}){
+			double[][] rows = data(random, numRows, 6);
+			double[] mean = mean(rows);
+			double[][] expected = everyCombination(rows, mean);
+			
+			assertMatrixEquals(expected, new Covariance(rows, mean, null).calculateCovMatrix(), "rows " + numRows);
+			assertMatrixEquals(expected, new Covariance(DataMatrix.fromRows(rows), mean, null).calculateCovMatrix(), "columns " + numRows);
+		}
+	}
+	
+	@Test
+	public void parallelSumsGiveTheSameMatrix(){
+		Random random = new Random(11);
+		double[][] rows = data(random, 50000, 8);
+		double[] mean = mean(rows);
+		double[][] expected = everyCombination(rows, mean);
+		
+		for(int parallelism : new int[]{2, 4}){
+			Covariance covariance = new Covariance(DataMatrix.fromRows(rows), mean, null);
+			covariance.setParallelism(parallelism);
+			assertMatrixEquals(expected, covariance.calculateCovMatrix(), "parallelism " + parallelism);
+		}
+	}
+}
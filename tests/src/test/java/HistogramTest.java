@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* Compares the frequencies of Histogram with the former queries of Utility1 and Utility2,
+* which checked every element against the min and the max value of a section.
+*
+* @author Yara Schuett
+*/
+public class HistogramTest{
+	
+	// the former query: [min, max) for every section, [min, max] for the last one
+	private static double[][] checkEveryElement(double[][] database, double[][] range){
+		int numQI = database[0].length;
+		int numSections = range.length;
+		double[][] frequencies = new double[numQI][numSections];
+		for(int i = 0; i < numQI; i++){
+			for(int j = 0; j < numSections; j++){
+				int numElements = 0;
+				for(int k = 0; k < database.length; k++){
+					double value = database[k][i];
+					if(j == numSections - 1){
+						if(value >= range[j][0] && value <= range[j][1]){
+							numElements++;
+						}
+					}else if(value >= range[j][0] && value < range[j][1]){
+						numElements++;
+					}
+				}
+				frequencies[i][j] = (double) numElements/database.length;
+			}
+		}
+		return frequencies;
+	}
+	
+	// the sections of the utility functions on [-5,5]
+	private static double[][] utilitySections(int numSections){
+		double[][] range = new double[numSections][2];
+		for(int i = 0; i < numSections; i++){
+			range[i][0] = - 5 + 10.0/numSections * i;
+			range[i][1] = - 5 + 10.0/numSections * (i + 1);
+		}
+		return range;
+	}
+	
+	// standard normal values, every fifth value exactly on a boundary of the sections
+	private static double[][] data(Random random, int numRows, int numQI, double[][] range){
+		double[][] database = new double[numRows][numQI];
+		for(int k = 0; k < numRows; k++){
+			for(int i = 0; i < numQI; i++){
+				if(k % 5 == 0){
+					double[] section = range[random.nextInt(range.length)];
+					database[k][i] = section[random.nextInt(2)];
+				}else{
+					database[k][i] = 2 * random.nextGaussian();
+				}
+			}
+		}
+		return database;
+	}
+	
+	@Test
+	public void sameFrequenciesAsTheSectionsOfTheUtilities(){
+		Random random = new Random(1);
+		for(int numSections : new int[]{8, 16, 100}){
+			double[][] range = utilitySections(numSections);
+			double[][] database = data(random, 2000, 3, range);
+			Histogram histogram = new Histogram(range);
+			double[][] expected = checkEveryElement(database, range);
+			double[][] actual = histogram.frequencies(database);
+			double[][] actualColumns = histogram.frequencies(DataMatrix.fromRows(database));
+			for(int i = 0; i < expected.length; i++){
+				assertArrayEquals(expected[i], actual[i], "numSections " + numSections + ", QI " + i);
+				assertArrayEquals(expected[i], actualColumns[i], "numSections " + numSections + ", QI " + i);
+			}
+		}
+	}
+	
+	@Test
+	public void sameFrequenciesForOverlappingAndUnsortedSections(){
+		Random random = new Random(2);
+		for(int run = 0; run < 200; run++){
+			int numSections = 1 + random.nextInt(6);
+			double[][] range = new double[numSections][2];
+			for(int j = 0; j < numSections; j++){
+				// few different values, so sections share boundaries, overlap or are empty
+				range[j][0] = random.nextInt(7) - 3;
+				range[j][1] = random.nextInt(7) - 3;
+				if(random.nextInt(4) == 0){
+					range[j][0] = -0.0;
+				}
+			}
+			double[][] database = new double[50][1];
+			for(int k = 0; k < database.length; k++){
+				database[k][0] = random.nextBoolean() ? random.nextInt(9) - 4 : 8 * random.nextDouble() - 4;
+			}
+			database[0][0] = -0.0;
+			database[1][0] = Double.NaN;
+			
+			double[][] expected = checkEveryElement(database, range);
+			double[][] actual = new Histogram(range).frequencies(database);
+			assertArrayEquals(expected[0], actual[0], "run " + run);
+		}
+	}
+	
+	@Test
+	public void negativeZeroIsInTheSectionAboveZero(){
+		double[][] range = utilitySections(16);
+		Histogram histogram = new Histogram(range);
+		assertEquals(histogram.slot(0.0), histogram.slot(-0.0));
+		
+		double[][] frequencies = histogram.frequencies(new double[][]{{-0.0}, {0.0}});
+		assertEquals(1.0, frequencies[0][8]);
+		assertEquals(0.0, frequencies[0][7]);
+	}
+}
@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* Compares LongIntHashMap with a HashMap, also while the table grows and for keys that only differ in the high bits.
+*
+* @author Yara Schuett
+*/
+public class LongIntHashMapTest{
+	
+	@Test
+	public void sameEntriesAsHashMap(){
+		Random random = new Random(3);
+		LongIntHashMap map = new LongIntHashMap(1);
+		HashMap<Long, Integer> expected = new HashMap<Long, Integer>();
+		long[] special = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE};
+		for(int i = 0; i < 100000; i++){
+			long key;
+			switch(i % 4){
+				case 0: key = random.nextLong(); break;
+				case 1: key = (long) random.nextInt(1000) << 40; break;
+				case 2: key = special[random.nextInt(special.length)]; break;
+				default: key = random.nextInt(5000); break;
+			}
+			int value = random.nextInt();
+			map.put(key, value);
+			expected.put(key, value);
+		}
+		assertEquals(expected.size(), map.size());
+		for(Map.Entry<Long, Integer> entry : expected.entrySet()){
+			assertEquals(entry.getValue().intValue(), map.get(entry.getKey(), -1), "key " + entry.getKey());
+		}
+		for(int i = 0; i < 10000; i++){
+			long key = random.nextLong();
+			if(!expected.containsKey(key)){
+				assertEquals(-7, map.get(key, -7));
+			}
+		}
+	}
+	
+	@Test
+	public void clearRemovesAllEntries(){
+		LongIntHashMap map = new LongIntHashMap(4);
+		for(long key = 0; key < 100; key++){
+			map.put(key << 33, (int) key);
+		}
+		map.clear();
+		assertEquals(0, map.size());
+		for(long key = 0; key < 100; key++){
+			assertEquals(-1, map.get(key << 33, -1));
+		}
+		map.put(5, 6);
+		assertEquals(6, map.get(5, -1));
+		assertEquals(1, map.size());
+	}
+}
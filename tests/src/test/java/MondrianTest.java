@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* Compares the clusters of Mondrian, which splits the permutation with quickselect, with the former
+* Mondrian that sorted every partition and copied it into two new lists.
+*
+* @author Yara Schuett
+*/
+public class MondrianTest{
+	
+	// the former algorithm, every cluster is stored as its median followed by its size
+	private static void sortAndSplit(ArrayList<double[]> data, int numQI, int k, ArrayList<double[]> clusters){
+		if(data.size() < 2 * k){
+			double[] cluster = new double[numQI + 1];
+			for(int j = 0; j < numQI; j++){
+				double[] values = new double[data.size()];
+				for(int i = 0; i < data.size(); i++){
+					values[i] = data.get(i)[j];
+				}
+				Arrays.sort(values);
+				int n = values.length;
+				cluster[j] = n % 2 == 1 ? values[n / 2] : (values[n / 2] + values[(n - 1) / 2]) / 2;
+			}
+			cluster[numQI] = data.size();
+			clusters.add(0, cluster);
+			return;
+		}
+		
+		// the dimension with the largest width, the first one if two are equally wide
+		int dim = -1;
+		double maxWidth = 0;
+		for(int j = 0; j < numQI; j++){
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for(double[] row : data){
+				min = Math.min(min, row[j]);
+				max = Math.max(max, row[j]);
+			}
+			if(Math.abs(max - min) > maxWidth){
+				maxWidth = Math.abs(max - min);
+				dim = j;
+			}
+		}
+		if(dim == -1){
+			return;
+		}
+		final int sortDim = dim;
+		data.sort(Comparator.comparingDouble(row -> row[sortDim]));
+		int half = data.size() / 2;
+		sortAndSplit(new ArrayList<double[]>(data.subList(half, data.size())), numQI, k, clusters);
+		sortAndSplit(new ArrayList<double[]>(data.subList(0, half)), numQI, k, clusters);
+	}
+	
+	private static double[][] expectedClusters(double[][] rows, int numQI, int k){
+		ArrayList<double[]> clusters = new ArrayList<double[]>();
+		sortAndSplit(new ArrayList<double[]>(Arrays.asList(rows)), numQI, k, clusters);
+		return sorted(clusters.toArray(new double[0][]));
+	}
+	
+	private static double[][] actualClusters(Mondrian mondrian, int numQI){
+		double[][] clusters = new double[mondrian.getNumClusters()][];
+		for(int c = 0; c < clusters.length; c++){
+			clusters[c] = Arrays.copyOf(mondrian.getClusterMedian(c), numQI + 1);
+			clusters[c][numQI] = mondrian.getClusterSize(c);
+		}
+		return sorted(clusters);
+	}
+	
+	// both algorithms find the same clusters, but not necessarily in the same order
+	private static double[][] sorted(double[][] clusters){
+		Arrays.sort(clusters, Arrays::compare);
+		return clusters;
+	}
+	
+	private static double[][] data(Random random, int numRows, int numQI){
+		double[][] rows = new double[numRows][numQI];
+		for(double[] row : rows){
+			for(int j = 0; j < numQI; j++){
+				row[j] = random.nextGaussian() * (j + 1);
+			}
+		}
+		return rows;
+	}
+	
+	@Test
+	public void sameClustersAsSortingEveryPartition(){
+		Random random = new Random(8);
+		for(int[] setting : new int[][]{{1, 1, 1}, {7, 2, 1}, {100, 3, 5}, {1000, 4, 10}, {5000, 9, 25}, {4097, 2, 2}}){
+			int numRows = setting[0];
+			int numQI = setting[1];
+			int k = setting[2];
+			double[][] rows = data(random, numRows, numQI);
+			
+			Mondrian mondrian = new Mondrian(numQI, k);
+			mondrian.mondrian(DataMatrix.fromRows(rows));
+			double[][] actual = actualClusters(mondrian, numQI);
+			double[][] expected = expectedClusters(rows, numQI, k);
+			
+			assertEquals(expected.length, actual.length, "rows " + numRows + ", k " + k);
+			for(int c = 0; c < expected.length; c++){
+				assertArrayEquals(expected[c], actual[c], "rows " + numRows + ", k " + k + ", cluster " + c);
+			}
+		}
+	}
+	
+	@Test
+	public void parallelModeFindsTheSameClustersInTheSameOrder(){
+		Random random = new Random(9);
+		double[][] rows = data(random, 20000, 5);
+		
+		Mondrian sequential = new Mondrian(5, 10);
+		sequential.mondrian(DataMatrix.fromRows(rows));
+		
+		Mondrian parallel = new Mondrian(5, 10);
+		parallel.setParallelism(4);
+		parallel.setParallelThreshold(100);
+		parallel.mondrian(DataMatrix.fromRows(rows));
+		
+		assertEquals(sequential.getNumClusters(), parallel.getNumClusters());
+		for(int c = 0; c < sequential.getNumClusters(); c++){
+			assertEquals(sequential.getClusterSize(c), parallel.getClusterSize(c));
+			assertArrayEquals(sequential.getClusterMedian(c), parallel.getClusterMedian(c));
+		}
+	}
+	
+	@Test
+	public void emptyDataHasNoClusters(){
+		Mondrian mondrian = new Mondrian(3, 5);
+		mondrian.mondrian(new DataMatrix(new double[3][0], 0));
+		assertEquals(0, mondrian.getNumClusters());
+		assertEquals(0, mondrian.getWeightedPartition().getNumRepresentatives());
+	}
+}
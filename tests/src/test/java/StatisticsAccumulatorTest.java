@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+* Compares the accumulated mean, standard derivation and covariance matrix with the two pass formulas,
+* also after merging accumulators of different parts of the data.
+*
+* @author Yara Schuett
+*/
+public class StatisticsAccumulatorTest{
+	
+	private static final double DELTA = 1e-9;
+	
+	private static double[][] data(Random random, int numRows, int numQI){
+		double[][] rows = new double[numRows][numQI];
+		for(double[] row : rows){
+			double shared = random.nextGaussian();
+			for(int j = 0; j < numQI; j++){
+				// a large offset, where summing up the squares would lose the digits
+				row[j] = 1e4 + shared * (j - 1) + random.nextGaussian();
+			}
+		}
+		return rows;
+	}
+	
+	private static double[] mean(double[][] rows){
+		double[] mean = new double[rows[0].length];
+		for(double[] row : rows){
+			for(int j = 0; j < mean.length; j++){
+				mean[j] += row[j];
+			}
+		}
+		for(int j = 0; j < mean.length; j++){
+			mean[j] /= rows.length;
+		}
+		return mean;
+	}
+	
+	private static void assertSameStatistics(double[][] rows, StatisticsAccumulator accumulator){
+		int numQI = rows[0].length;
+		double[] mean = mean(rows);
+		assertEquals(rows.length, accumulator.getCount());
+		assertArrayEquals(mean, accumulator.getMean(), DELTA);
+		
+		double[][] covMatrix = accumulator.getCovMatrix();
+		double[] standardDerivation = accumulator.getStandardDerivation();
+		for(int i = 0; i < numQI; i++){
+			double squares = 0;
+			for(int j = 0; j < numQI; j++){
+				double sum = 0;
+				for(double[] row : rows){
+					sum += (row[i] - mean[i]) * (row[j] - mean[j]);
+				}
+				if(i == j){
+					squares = sum;
+				}
+				assertEquals(sum / (rows.length - 1), covMatrix[i][j], DELTA, "covariance " + i + "," + j);
+			}
+			assertEquals(Math.sqrt(squares / rows.length), standardDerivation[i], DELTA, "standard derivation " + i);
+		}
+	}
+	
+	@Test
+	public void sameStatisticsAsTwoPasses(){
+		double[][] rows = data(new Random(12), 5000, 5);
+		
+		StatisticsAccumulator accumulator = new StatisticsAccumulator(5);
+		accumulator.add(rows);
+		assertSameStatistics(rows, accumulator);
+		
+		StatisticsAccumulator columns = new StatisticsAccumulator(5);
+		columns.add(DataMatrix.fromRows(rows));
+		assertSameStatistics(rows, columns);
+	}
+	
+	@Test
+	public void mergedAccumulatorsHaveTheStatisticsOfAllRows(){
+		double[][] rows = data(new Random(13), 3000, 4);
+		for(int split : new int[]{0, 1, 2, 1500, 2999, 3000}){
+			StatisticsAccumulator first = new StatisticsAccumulator(4);
+			StatisticsAccumulator second = new StatisticsAccumulator(4);
+			first.add(Arrays.copyOfRange(rows, 0, split));
+			second.add(Arrays.copyOfRange(rows, split, rows.length));
+			first.merge(second);
+			assertSameStatistics(rows, first);
+		}
+		
+		// many small chunks merged one after another
+		StatisticsAccumulator merged = new StatisticsAccumulator(4);
+		for(int from = 0; from < rows.length; from += 7){
+			StatisticsAccumulator chunk = new StatisticsAccumulator(4);
+			chunk.add(Arrays.copyOfRange(rows, from, Math.min(from + 7, rows.length)));
+			merged.merge(chunk);
+		}
+		assertSameStatistics(rows, merged);
+	}
+	
+	@Test
+	public void weightedRowsAreLikeRepeatedRows(){
+		Random random = new Random(14);
+		double[][] representatives = data(random, 50, 3);
+		int[] counts = new int[representatives.length];
+		for(int i = 0; i < counts.length; i++){
+			counts[i] = 1 + random.nextInt(20);
+		}
+		WeightedDataset weighted = new WeightedDataset(representatives, counts);
+		
+		StatisticsAccumulator accumulator = new StatisticsAccumulator(3);
+		accumulator.add(weighted);
+		assertSameStatistics(weighted.toArray(), accumulator);
+	}
+}
@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+* Checks that a sweep continues with the cells of its log, also if the last record was only written in part.
+*
+* @author Yara Schuett
+*/
+public class SweepCheckpointTest{
+	
+	private static final long FINGERPRINT = 0x1234567890L;
+	
+	@TempDir
+	Path directory;
+	
+	private String path(){
+		return directory.resolve("sweep.ckpt").toString();
+	}
+	
+	// two finished cells, the log is closed like after an interrupted sweep
+	private long writeTwoCells() throws IOException{
+		try(SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 4711)){
+			checkpoint.complete(3, new double[]{0.5, -1.0});
+			checkpoint.complete(7, new double[]{Double.NaN});
+		}
+		return Files.size(Path.of(path()));
+	}
+	
+	@Test
+	public void finishedCellsAreLoaded() throws IOException{
+		writeTwoCells();
+		try(SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 0)){
+			assertEquals(2, checkpoint.getNumCompleted());
+			assertEquals(4711, checkpoint.getResultLength());
+			assertTrue(checkpoint.isCompleted(3));
+			assertFalse(checkpoint.isCompleted(4));
+			assertNull(checkpoint.getValues(4));
+			assertArrayEquals(new double[]{0.5, -1.0}, checkpoint.getValues(3));
+			assertArrayEquals(new double[]{Double.NaN}, checkpoint.getValues(7));
+			
+			checkpoint.complete(4, new double[]{2});
+		}
+		try(SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 0)){
+			assertEquals(3, checkpoint.getNumCompleted());
+			assertArrayEquals(new double[]{2}, checkpoint.getValues(4));
+		}
+	}
+	
+	@Test
+	public void tornRecordIsCutOff() throws IOException{
+		long length = writeTwoCells();
+		
+		// a record of cell 5 with 3 values, but the process stopped after the first value
+		try(RandomAccessFile file = new RandomAccessFile(path(), "rw")){
+			file.seek(length);
+			file.writeInt(Integer.reverseBytes(5));
+			file.writeInt(Integer.reverseBytes(3));
+			file.writeLong(Long.reverseBytes(Double.doubleToLongBits(1.0)));
+		}
+		try(SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 0)){
+			assertEquals(2, checkpoint.getNumCompleted());
+			assertFalse(checkpoint.isCompleted(5));
+			assertEquals(length, Files.size(Path.of(path())));
+			
+			// the next record follows directly the last complete one
+			checkpoint.complete(5, new double[]{1, 2, 3});
+		}
+		try(SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 0)){
+			assertEquals(3, checkpoint.getNumCompleted());
+			assertArrayEquals(new double[]{1, 2, 3}, checkpoint.getValues(5));
+		}
+	}
+	
+	@Test
+	public void recordWithWrongChecksumIsDropped() throws IOException{
+		long length = writeTwoCells();
+		
+		// change the only value of the last record, cell 7
+		try(RandomAccessFile file = new RandomAccessFile(path(), "rw")){
+			file.seek(length - 12);
+			file.writeLong(Long.reverseBytes(Double.doubleToLongBits(42.0)));
+		}
+		try(SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 0)){
+			assertEquals(1, checkpoint.getNumCompleted());
+			assertTrue(checkpoint.isCompleted(3));
+			assertFalse(checkpoint.isCompleted(7));
+			assertEquals(length - 20, Files.size(Path.of(path())));
+		}
+	}
+	
+	@Test
+	public void logOfAnotherGridIsNotUsed() throws IOException{
+		writeTwoCells();
+		assertThrows(IOException.class, () -> new SweepCheckpoint(path(), FINGERPRINT + 1, 10, 0));
+		assertThrows(IOException.class, () -> new SweepCheckpoint(path(), FINGERPRINT, 11, 0));
+		
+		SweepCheckpoint checkpoint = new SweepCheckpoint(path(), FINGERPRINT, 10, 0);
+		checkpoint.delete();
+		assertFalse(Files.exists(Path.of(path())));
+	}
+}